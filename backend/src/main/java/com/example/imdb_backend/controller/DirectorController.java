@@ -0,0 +1,80 @@
+package com.example.imdb_backend.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.imdb_backend.model.ImdbRating;
+import com.example.imdb_backend.repository.DirectorRepository;
+import com.example.imdb_backend.service.ResponseFormats;
+import com.example.imdb_backend.service.SnapshotCatalog;
+
+@RestController
+@RequestMapping(value = "/api/imdb-ratings/directors",
+    produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+@CrossOrigin(origins = "http://localhost:3000")
+public class DirectorController {
+
+    @Autowired
+    private DirectorRepository directorRepository;
+
+    @Autowired
+    private SnapshotCatalog snapshotCatalog;
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getDirectorStats(
+            @RequestParam(required = false) String date,
+            @RequestParam(defaultValue = "1") int minTitles) {
+        // Votes are summed from one snapshot, the latest unless asked otherwise
+        String effectiveDate = (date != null && !date.isEmpty()) ? date : snapshotCatalog.latest();
+
+        List<Map<String, Object>> mapped = directorRepository.findDirectorStats(effectiveDate, minTitles).stream()
+            .map(row -> {
+                Map<String, Object> m = new HashMap<>();
+                Double avgRating = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
+
+                m.put("id", row[0]);
+                m.put("director", row[0]);
+                m.put("count", ((Number) row[1]).longValue());
+                m.put("avgRating", String.format(Locale.US, "%.2f", avgRating));
+                m.put("totalVotes", row[3] != null ? ((Number) row[3]).longValue() : 0L);
+                return m;
+            }).toList();
+
+        return ResponseEntity.ok(mapped);
+    }
+
+    @GetMapping("/{name}/titles")
+    public ResponseEntity<?> getDirectorTitles(@PathVariable String name) {
+        List<ImdbRating> titles = directorRepository.findTitlesByDirector(name);
+
+        List<Map<String, Object>> mapped = titles.stream()
+            .map(rating -> {
+                Map<String, Object> m = new HashMap<>();
+                m.put("id", rating.getImdbConst());
+                m.put("const", rating.getImdbConst());
+                m.put("title", rating.getTitle());
+                m.put("originalTitle", rating.getOriginalTitle());
+                m.put("url", rating.getUrl());
+                m.put("titleType", rating.getTitleType());
+                m.put("year", rating.getYear());
+                m.put("yourRating", rating.getYourRating());
+                m.put("dateRated", rating.getDateRated());
+                m.put("genres", rating.getGenres());
+                return m;
+            }).toList();
+
+        return ResponseEntity.ok(mapped);
+    }
+}
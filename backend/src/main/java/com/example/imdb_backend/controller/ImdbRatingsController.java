@@ -1,17 +1,15 @@
 package com.example.imdb_backend.controller;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -20,18 +18,33 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
-import com.example.imdb_backend.model.ImdbRating;
+import com.example.imdb_backend.model.BackgroundJob;
 import com.example.imdb_backend.repository.ImdbRatingRepository;
 import com.example.imdb_backend.service.ImdbCsvImporter;
 import com.example.imdb_backend.dto.ComparisonDTO;
+import com.example.imdb_backend.service.CompareMatrixService;
 import com.example.imdb_backend.service.CountryFillService;
+import com.example.imdb_backend.service.DashboardService;
+import com.example.imdb_backend.service.JobScheduler;
+import com.example.imdb_backend.service.RatingDistributionService;
+import com.example.imdb_backend.service.RatingTimeline;
+import com.example.imdb_backend.service.ResponseFormats;
+import com.example.imdb_backend.service.SnapshotCatalog;
+import com.example.imdb_backend.service.SnapshotPartitionService;
+import com.example.imdb_backend.service.SnapshotResponseCache;
+import com.example.imdb_backend.service.StatsService;
+import com.example.imdb_backend.service.VoteHistoryImage;
+import com.example.imdb_backend.service.WikidataDumpService;
 
 @RestController
 @RequestMapping("/api/imdb-ratings")
@@ -45,7 +58,40 @@ public class ImdbRatingsController {
     private ImdbRatingRepository imdbRatingRepository;
 
     @Autowired
-    private CountryFillService countryFillService;
+    private JobScheduler jobScheduler;
+
+    @Autowired
+    private WikidataDumpService wikidataDumpService;
+
+    @Autowired
+    private SnapshotResponseCache snapshotResponseCache;
+
+    @Autowired
+    private ResponseFormats responseFormats;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private RatingTimeline ratingTimeline;
+
+    @Autowired
+    private RatingDistributionService ratingDistributionService;
+
+    @Autowired
+    private SnapshotCatalog snapshotCatalog;
+
+    @Autowired
+    private VoteHistoryImage voteHistoryImage;
+
+    @Autowired
+    private CompareMatrixService compareMatrixService;
+
+    @Autowired
+    private SnapshotPartitionService snapshotPartitionService;
 
     @PostMapping
     public ResponseEntity<String> postExample(@RequestBody Map<String, Object> payload) {
@@ -66,18 +112,10 @@ public class ImdbRatingsController {
         return ResponseEntity.ok(result);
     }
 
-    @GetMapping("/file-names")
+    @GetMapping(value = "/file-names",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
     public ResponseEntity<List<String>> getAllFileNames() {
-        List<ImdbRating> allRatings = imdbRatingRepository.findAll();
-        Set<String> uniqueFileNames = new HashSet<>();
-
-        for (ImdbRating rating : allRatings) {
-            if (rating.getContains() != null) {
-                uniqueFileNames.addAll(rating.getContains());
-            }
-        }
-
-        List<String> sortedList = new ArrayList<>(uniqueFileNames);
+        List<String> sortedList = new ArrayList<>(imdbRatingRepository.findSnapshotDates());
         Collections.sort(sortedList);
 
         return ResponseEntity.ok(sortedList);
@@ -85,56 +123,66 @@ public class ImdbRatingsController {
 
     @PostMapping("/fill-missing-countries")
     public ResponseEntity<String> fillMissingCountries() {
-        countryFillService.fillMissingCountries();
-        return ResponseEntity.ok("Batch update finished.");
+        BackgroundJob job = jobScheduler.submit(CountryFillService.JOB_TYPE);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body("Batch update running as job " + job.getId() + ".");
     }
 
     @PostMapping("/stop-filling-missing-countries")
     public ResponseEntity<String> stopFill() {
-        countryFillService.requestStop();
-        return ResponseEntity.ok("Stop requested.");
+        int cancelled = jobScheduler.cancelByType(CountryFillService.JOB_TYPE);
+        return ResponseEntity.ok(cancelled > 0 ? "Stop requested." : "No batch update running.");
+    }
+
+    @PostMapping("/import-wikidata-dump")
+    public ResponseEntity<String> importWikidataDump(@RequestParam String file) {
+        // Only files inside the configured dump directory can be imported
+        try {
+            wikidataDumpService.resolveDump(file);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        try {
+            BackgroundJob job = jobScheduler.submit(WikidataDumpService.JOB_TYPE, file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body("Wikidata dump import running as job " + job.getId() + ".");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 
-    @GetMapping("/compare")
+    @GetMapping(value = "/compare",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
     public ResponseEntity<List<ComparisonDTO>> compareVotes(
             @RequestParam String from,
             @RequestParam String to,
             @RequestParam(required = false) String search) {
 
-        List<ImdbRating> allRatings = imdbRatingRepository.findAll();
+        // One row per title present in both snapshots, so no per-title collection loads
+        List<Object[]> rows = imdbRatingRepository.findVotesBetween(from, to);
         List<ComparisonDTO> result = new ArrayList<>();
         int idCounter = 1;
+        String lowerSearch = (search != null && !search.isBlank()) ? search.toLowerCase() : null;
 
-        for (ImdbRating rating : allRatings) {
-            boolean matchesSearch = true;
-
-            if (search != null && !search.isBlank()) {
-                String lowerSearch = search.toLowerCase();
-                matchesSearch =
-                    (rating.getTitle() != null && rating.getTitle().toLowerCase().contains(lowerSearch)) ||
-                    (rating.getOriginalTitle() != null && rating.getOriginalTitle().toLowerCase().contains(lowerSearch)) ||
-                    (rating.getImdbConst() != null && rating.getImdbConst().toLowerCase().contains(lowerSearch)) ||
-                    (rating.getTitleType() != null && rating.getTitleType().toLowerCase().contains(lowerSearch)) ||
-                    (rating.getDirectors() != null && rating.getDirectors().toLowerCase().contains(lowerSearch)) ||
-                    (rating.getGenres() != null && rating.getGenres().toLowerCase().contains(lowerSearch));
+        for (Object[] row : rows) {
+            if (lowerSearch != null && !matchesSearch(row, lowerSearch)) {
+                continue;
             }
 
-            if (matchesSearch && rating.getNumVotes().containsKey(from) && rating.getNumVotes().containsKey(to)) {
-                Integer fromVotes = rating.getNumVotes().get(from);
-                Integer toVotes = rating.getNumVotes().get(to);
-                int difference = toVotes - fromVotes;
-
-                ComparisonDTO dto = new ComparisonDTO();
-                dto.setId(idCounter++);
-                dto.setDateRated(rating.getDateRated());
-                dto.setName(rating.getOriginalTitle() + " (" + rating.getYear() + ")");
-                dto.setFirstDate(fromVotes);
-                dto.setSecondDate(toVotes);
-                dto.setDifference(difference);
-                dto.setLink(rating.getUrl());
-
-                result.add(dto);
-            }
+            int fromVotes = ((Number) row[5]).intValue();
+            int toVotes = ((Number) row[6]).intValue();
+
+            ComparisonDTO dto = new ComparisonDTO();
+            dto.setId(idCounter++);
+            dto.setDateRated(toLocalDate(row[1]));
+            dto.setName(row[2] + " (" + row[3] + ")");
+            dto.setFirstDate(fromVotes);
+            dto.setSecondDate(toVotes);
+            dto.setDifference(toVotes - fromVotes);
+            dto.setLink((String) row[4]);
+
+            result.add(dto);
         }
 
         // Only return the last 100 rows, preserving original order
@@ -145,223 +193,212 @@ public class ImdbRatingsController {
         return ResponseEntity.ok(result);
     }
 
-    @GetMapping("/year-count")
-    public ResponseEntity<?> getYearCount(@RequestParam(required = false) String fromDate) {
-        List<Object[]> results;
-        
+    @GetMapping(value = "/compare-matrix",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> compareMatrix(
+            @RequestParam List<String> dates,
+            @RequestParam(defaultValue = "false") boolean allPairs,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean parallel) {
+        if (dates.size() < 2) {
+            return ResponseEntity.badRequest().body("At least two dates are required.");
+        }
+
         try {
-            String effectiveDate = (fromDate != null && !fromDate.isEmpty())
-                    ? fromDate
-                    : LocalDate.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+            return ResponseEntity.ok(compareMatrixService.compare(dates, allPairs, search, parallel));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
-            results = imdbRatingRepository.findYearCountsFromDate(effectiveDate);
+    @GetMapping(value = "/year-count",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> getYearCount(@RequestParam(required = false) String fromDate) {
+        try {
+            return ResponseEntity.ok(statsService.yearCounts(effectiveDate(fromDate)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Invalid date format. Expected dd.MM.yyyy");
         }
-
-        Map<Integer, Long> countsMap = results.stream()
-            .collect(Collectors.toMap(
-                row -> (Integer) row[0],
-                row -> ((Number) row[1]).longValue()
-            ));
-
-        List<Map<String, Object>> mapped = IntStream.rangeClosed(1874, 2026)
-            .mapToObj(year -> {
-                Map<String, Object> m = new HashMap<>();
-                m.put("year", year);
-                m.put("itemsNum", countsMap.getOrDefault(year, 0L));
-                return m;
-            }).toList();
-
-        long totalItems = mapped.stream()
-            .mapToLong(m -> (Long) m.get("itemsNum"))
-            .sum();
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("totalItems", totalItems);
-        response.put("years", mapped);
-
-        return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/yearly-average")
+    @GetMapping(value = "/yearly-average",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
     public ResponseEntity<?> getYearlyAverage(@RequestParam(required = false) String cutoffDate) {
-        List<Object[]> results;
-
-        if (cutoffDate == null || cutoffDate.isEmpty()) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-            cutoffDate = LocalDate.now().format(formatter);
-        }
-
         try {
-            results = imdbRatingRepository.findYearAverageUntil(cutoffDate);
+            return ResponseEntity.ok(statsService.yearlyAverages(effectiveDate(cutoffDate)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Invalid date format. Expected dd.MM.yyyy");
         }
-
-        List<Map<String, Object>> mapped = results.stream()
-            .map(row -> {
-                Map<String, Object> m = new HashMap<>();
-                Integer year = ((Number) row[0]).intValue();
-                Long itemsNum = ((Number) row[1]).longValue();
-                Double avgRating = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
-
-                String avgRatingStr = String.format(Locale.US, "%.2f", avgRating);
-
-                m.put("id", year);
-                m.put("year", year);
-                m.put("itemsNum", itemsNum);
-                m.put("avgRating", avgRatingStr);
-                return m;
-            }).filter(m -> (Long) m.get("itemsNum") > 0).toList();
-
-        return ResponseEntity.ok(mapped);
     }
 
-    @GetMapping("/title-type-count")
+    @GetMapping(value = "/title-type-count",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
     public ResponseEntity<?> getTitleTypeCount(@RequestParam(required = false) String fromDate) {
-        List<Object[]> results;
-
         try {
-            String effectiveDate = (fromDate != null && !fromDate.isEmpty())
-                    ? fromDate
-                    : LocalDate.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+            return ResponseEntity.ok(statsService.titleTypeCounts(effectiveDate(fromDate)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Invalid date format. Expected dd.MM.yyyy");
+        }
+    }
 
-            results = imdbRatingRepository.findTitleTypeCountsFromDate(effectiveDate);
+    @GetMapping(value = "/genre-stats",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> getGenreStats(@RequestParam(required = false) String cutoffDate) {
+        try {
+            return ResponseEntity.ok(statsService.genreStats(effectiveDate(cutoffDate)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Invalid date format. Expected dd.MM.yyyy");
         }
+    }
 
-        List<Map<String, Object>> mapped = results.stream()
-                .map(row -> {
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("id", (String) row[0]);
-                    m.put("titleType", (String) row[0]);
-                    m.put("count", ((Number) row[1]).longValue());
-                    return m;
-                }).toList();
+    @GetMapping(value = "/dashboard",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> getDashboard(
+            @RequestParam(required = false) String cutoffDate,
+            @RequestParam(required = false) String snapshot) {
+        // The year count is per snapshot, not per rated-date cutoff like the other sections
+        if (snapshot == null || snapshot.isEmpty()) {
+            snapshot = snapshotCatalog.latest();
+        } else if (!snapshotCatalog.snapshots().contains(snapshot)) {
+            return ResponseEntity.badRequest().body("Unknown snapshot: " + snapshot);
+        }
 
-        return ResponseEntity.ok(mapped);
+        return ResponseEntity.ok(dashboardService.load(effectiveDate(cutoffDate), snapshot));
     }
 
-    @GetMapping("/genre-stats")
-    public ResponseEntity<?> getGenreStats(@RequestParam(required = false) String cutoffDate) {
+    @GetMapping(value = "/ratings-by-date",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> getRatingsByDate(
+            @RequestParam(required = false) String date,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            String effectiveDate = (cutoffDate != null && !cutoffDate.isEmpty())
-                    ? cutoffDate
+            String effectiveDate = (date != null && !date.isEmpty())
+                    ? date
                     : LocalDate.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
 
-            List<Object[]> results = imdbRatingRepository.findGenreStatsUntil(effectiveDate);
-
-            List<Map<String, Object>> mapped = results.stream()
-                .map(row -> {
-                    Map<String, Object> m = new HashMap<>();
-                    String genre = (String) row[0];
-                    Long total = ((Number) row[1]).longValue();
-                    Double avgRating = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
+            MediaType format = responseFormats.negotiate(accept);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
 
-                    // Force 2 decimals with dot
-                    avgRating = Math.round(avgRating * 100.0) / 100.0;
+            if (!format.equals(MediaType.APPLICATION_JSON)) {
+                return response.body(snapshotResponseCache.get(effectiveDate, format));
+            }
 
-                    m.put("id", genre);
-                    m.put("genre", genre);
-                    m.put("count", total);
-                    m.put("avgRating", avgRating);
-                    return m;
-                }).filter(m -> (Long) m.get("count") > 0)
-                  .toList();
+            SnapshotResponseCache.CachedResponse cached = snapshotResponseCache.get(effectiveDate);
+            if (cached.gzip() != null && ResponseFormats.acceptsGzip(acceptEncoding)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip());
+            }
+            return response.body(cached.json());
 
-            return ResponseEntity.ok(mapped);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Invalid date format. Expected dd.MM.yyyy");
         }
     }
 
-    @GetMapping("/ratings-by-date")
-    public ResponseEntity<?> getRatingsByDate(@RequestParam(required = false) String date) {
+    @GetMapping(value = "/format-benchmark",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> getFormatBenchmark(@RequestParam String date) throws IOException {
         try {
-            String effectiveDate = (date != null && !date.isEmpty())
-                    ? date
-                    : LocalDate.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+            LocalDate.parse(date, SnapshotCatalog.SNAPSHOT_FORMAT);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date format. Expected dd.MM.yyyy");
+        }
+        return ResponseEntity.ok(responseFormats.benchmark(snapshotResponseCache.rows(date)));
+    }
 
-            List<Object[]> results = imdbRatingRepository.findRatingsByDate(effectiveDate);
-
-            List<Map<String, Object>> mapped = results.stream().map(row -> {
-                Map<String, Object> m = new HashMap<>();
-                m.put("id", row[0]);
-                m.put("const", row[0]);
-                m.put("title", row[1]);
-                m.put("originalTitle", row[2]);
-                m.put("url", row[3]);
-                m.put("titleType", row[4]);
-                m.put("imdbRating", row[5]);
-                m.put("runtime", row[6]);
-                m.put("year", row[7]);
-                m.put("yourRating", row[8]);
-                m.put("dateRated", row[9]);
-                m.put("genres", row[10]);
-                m.put("numVotes", row[11]);
-                m.put("releaseDate", row[12]);
-                m.put("directors", row[13]);
-                return m;
-            }).toList();
-
-            return ResponseEntity.ok(mapped);
+    @GetMapping(value = "/rating-distribution",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> getRatingDistribution(
+            @RequestParam(defaultValue = RatingDistributionService.ALL) String dimension,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) List<String> keys,
+            @RequestParam(defaultValue = "false") boolean merge) {
+        if (!RatingDistributionService.DIMENSIONS.contains(dimension)) {
+            return ResponseEntity.badRequest().body("Unknown dimension. Expected one of " + RatingDistributionService.DIMENSIONS);
+        }
 
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Invalid date format. Expected dd.MM.yyyy");
+        String effectiveDate = (date != null && !date.isEmpty()) ? date : snapshotCatalog.latest();
+        if (effectiveDate == null) {
+            return ResponseEntity.ok(List.of());
         }
+
+        Set<String> keySet = keys != null ? new HashSet<>(keys) : null;
+        return ResponseEntity.ok(ratingDistributionService.distribution(effectiveDate, dimension, keySet, merge));
     }
 
-    @GetMapping("/country-counts")
-    public ResponseEntity<?> getCountryCounts() {
-        List<Object[]> results = imdbRatingRepository.findMovieCountsByCountry();
+    @GetMapping(value = "/activity",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> getActivity(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = RatingTimeline.MONTH) String bucket,
+            @RequestParam(defaultValue = RatingDistributionService.ALL) String dimension) {
+        if (!RatingTimeline.BUCKETS.contains(bucket)) {
+            return ResponseEntity.badRequest().body("Unknown bucket: " + bucket);
+        }
+        if (!RatingTimeline.DIMENSIONS.contains(dimension)) {
+            return ResponseEntity.badRequest().body("Unknown dimension: " + dimension);
+        }
 
-        List<Map<String, Object>> mapped = results.stream()
-            .map(row -> {
-                Map<String, Object> m = new HashMap<>();
-                m.put("country", (String) row[0]);
-                m.put("count", ((Number) row[1]).intValue());
-                return m;
-            }).toList();
+        try {
+            LocalDate fromDate = (from != null && !from.isEmpty())
+                    ? LocalDate.parse(from, SnapshotCatalog.SNAPSHOT_FORMAT)
+                    : null;
+            LocalDate toDate = (to != null && !to.isEmpty())
+                    ? LocalDate.parse(to, SnapshotCatalog.SNAPSHOT_FORMAT)
+                    : null;
+            return ResponseEntity.ok(ratingTimeline.activity(fromDate, toDate, bucket, dimension));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date format. Expected dd.MM.yyyy");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
-        return ResponseEntity.ok(mapped);
+    @GetMapping(value = "/country-counts",
+        produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<?> getCountryCounts() {
+        return ResponseEntity.ok(statsService.countryCounts());
     }
 
     @DeleteMapping("/delete-by-file/{fileName}")
     public ResponseEntity<String> removeFileData(@PathVariable String fileName) {
-        List<ImdbRating> affected = imdbRatingRepository.findByContainsContaining(fileName);
+        // Drops the snapshot's partitions, or bulk deletes its rows when the tables are not partitioned
+        int updatedCount = snapshotPartitionService.deleteSnapshot(fileName);
 
-        if (affected.isEmpty()) {
+        if (updatedCount == 0) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No entries found containing file: " + fileName);
         }
 
-        int updatedCount = 0;
-
-        for (ImdbRating rating : affected) {
-            boolean modified = false;
-
-            // Remove file name from contains list
-            if (rating.getContains() != null && rating.getContains().remove(fileName)) {
-                modified = true;
-            }
+        snapshotResponseCache.invalidate(fileName);
+        ratingDistributionService.deleteSnapshot(fileName);
+        voteHistoryImage.rebuild();
 
-            // Remove entry from numVotes map
-            if (rating.getNumVotes() != null && rating.getNumVotes().remove(fileName) != null) {
-                modified = true;
-            }
+        return ResponseEntity.ok("Cleaned file data from " + updatedCount + " entries for file: " + fileName);
+    }
 
-            // Remove entry from imdbRatings map
-            if (rating.getImdbRatings() != null && rating.getImdbRatings().remove(fileName) != null) {
-                modified = true;
-            }
+    private static String effectiveDate(String date) {
+        return (date != null && !date.isEmpty())
+                ? date
+                : LocalDate.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+    }
 
-            if (modified) {
-                imdbRatingRepository.save(rating);
-                updatedCount++;
+    private static boolean matchesSearch(Object[] row, String lowerSearch) {
+        // title, original title, const, title type, directors, genres
+        for (int column : new int[] {7, 2, 8, 9, 10, 11}) {
+            if (row[column] != null && row[column].toString().toLowerCase().contains(lowerSearch)) {
+                return true;
             }
         }
+        return false;
+    }
 
-        return ResponseEntity.ok("Cleaned file data from " + updatedCount + " entries for file: " + fileName);
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
     }
 }
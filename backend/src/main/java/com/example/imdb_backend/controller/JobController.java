@@ -0,0 +1,45 @@
+package com.example.imdb_backend.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.imdb_backend.model.BackgroundJob;
+import com.example.imdb_backend.service.JobScheduler;
+
+@RestController
+@RequestMapping("/api/imdb-ratings/jobs")
+@CrossOrigin(origins = "http://localhost:3000")
+public class JobController {
+
+    @Autowired
+    private JobScheduler jobScheduler;
+
+    @GetMapping
+    public ResponseEntity<List<BackgroundJob>> getJobs() {
+        return ResponseEntity.ok(jobScheduler.findAll());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        return jobScheduler.findById(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("No job with id " + id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<String> cancelJob(@PathVariable Long id) {
+        if (!jobScheduler.cancel(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No active job with id " + id);
+        }
+        return ResponseEntity.ok("Cancellation requested for job " + id);
+    }
+}
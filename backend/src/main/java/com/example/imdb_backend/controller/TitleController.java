@@ -0,0 +1,72 @@
+package com.example.imdb_backend.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.imdb_backend.service.ResponseFormats;
+import com.example.imdb_backend.service.SimilarTitlesService;
+import com.example.imdb_backend.service.TitleHistoryService;
+
+@RestController
+@RequestMapping(value = "/api/imdb-ratings/titles",
+    produces = {MediaType.APPLICATION_JSON_VALUE, ResponseFormats.CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+@CrossOrigin(origins = "http://localhost:3000")
+public class TitleController {
+
+    @Autowired
+    private SimilarTitlesService similarTitlesService;
+
+    @Autowired
+    private TitleHistoryService titleHistoryService;
+
+    @GetMapping("/{imdbConst}/similar")
+    public ResponseEntity<?> getSimilarTitles(
+            @PathVariable String imdbConst,
+            @RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > SimilarTitlesService.MAX_NEIGHBORS) {
+            return ResponseEntity.badRequest()
+                .body("k must be between 1 and " + SimilarTitlesService.MAX_NEIGHBORS);
+        }
+
+        List<Map<String, Object>> similar;
+        try {
+            similar = similarTitlesService.findSimilar(imdbConst, k);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(e.getMessage());
+        }
+        if (similar == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No title with const " + imdbConst);
+        }
+        return ResponseEntity.ok(similar);
+    }
+
+    @GetMapping("/{imdbConst}/history")
+    public ResponseEntity<?> getHistory(
+            @PathVariable String imdbConst,
+            @RequestParam(defaultValue = "200") int points) {
+        if (points < TitleHistoryService.MIN_POINTS || points > TitleHistoryService.MAX_POINTS) {
+            return ResponseEntity.badRequest().body("points must be between "
+                + TitleHistoryService.MIN_POINTS + " and " + TitleHistoryService.MAX_POINTS);
+        }
+
+        Map<String, Object> history = titleHistoryService.history(imdbConst, points);
+        if (history == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No title with const " + imdbConst);
+        }
+        return ResponseEntity.ok(history);
+    }
+}
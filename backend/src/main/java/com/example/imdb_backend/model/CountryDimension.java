@@ -0,0 +1,8 @@
+package com.example.imdb_backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "dim_country")
+public class CountryDimension extends DimensionEntry {
+}
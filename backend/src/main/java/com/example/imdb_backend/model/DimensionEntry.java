@@ -0,0 +1,36 @@
+package com.example.imdb_backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A row of a small lookup table that replaces a repeated varchar on
+ * {@code imdb_ratings} with a smallint key.
+ */
+@MappedSuperclass
+public abstract class DimensionEntry {
+
+    @Id
+    @Column(name = "id")
+    private Short id;
+
+    @Column(name = "label", unique = true, nullable = false)
+    private String label;
+
+    // Getters and setters
+
+    public Short getId() {
+        return id;
+    }
+
+    public void setId(Short id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.imdb_backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "directors")
+public class Director {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    // Binary collation: MySQL's default one treats names that differ only by accents or case as equal
+    @Column(name = "name", unique = true, nullable = false,
+        columnDefinition = "VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin")
+    private String name;
+
+    // Getters and setters
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
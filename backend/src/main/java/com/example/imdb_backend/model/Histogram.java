@@ -0,0 +1,60 @@
+package com.example.imdb_backend.model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-bucket counter that can be merged with another histogram of the same
+ * layout. Used for the rating and vote distributions stored per snapshot.
+ */
+public class Histogram {
+
+    private final long[] counts;
+
+    public Histogram(int buckets) {
+        this.counts = new long[buckets];
+    }
+
+    public Histogram(long[] counts) {
+        this.counts = counts;
+    }
+
+    public void add(int bucket) {
+        counts[Math.max(0, Math.min(bucket, counts.length - 1))]++;
+    }
+
+    public void merge(Histogram other) {
+        for (int i = 0; i < counts.length && i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    public long total() {
+        return Arrays.stream(counts).sum();
+    }
+
+    /** Index of the bucket holding the q-th quantile, or -1 for an empty histogram. */
+    public int quantileBucket(double q) {
+        long total = total();
+        if (total == 0) {
+            return -1;
+        }
+
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                return i;
+            }
+        }
+        return counts.length - 1;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    public int size() {
+        return counts.length;
+    }
+}
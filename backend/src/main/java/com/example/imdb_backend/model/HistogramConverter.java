@@ -0,0 +1,29 @@
+package com.example.imdb_backend.model;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class HistogramConverter implements AttributeConverter<Histogram, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Histogram histogram) {
+        if (histogram == null) {
+            return null;
+        }
+        return Arrays.stream(histogram.getCounts())
+            .mapToObj(Long::toString)
+            .collect(Collectors.joining(","));
+    }
+
+    @Override
+    public Histogram convertToEntityAttribute(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return new Histogram(Arrays.stream(value.split(",")).mapToLong(Long::parseLong).toArray());
+    }
+}
@@ -16,19 +16,23 @@ public class ImdbRating {
     @Column(name = "imdb_const", unique = true)
     private String imdbConst;
 
+    // The snapshot tables are partitioned by file_date, which MySQL only allows without foreign keys
     @ElementCollection
-    @CollectionTable(name = "imdb_contains", joinColumns = @JoinColumn(name = "imdb_const"))
+    @CollectionTable(name = "imdb_contains", joinColumns = @JoinColumn(name = "imdb_const"),
+        foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @Column(name = "file_date")
     private List<String> contains = new ArrayList<>();
 
     @ElementCollection
-    @CollectionTable(name = "imdb_num_votes", joinColumns = @JoinColumn(name = "imdb_const"))
+    @CollectionTable(name = "imdb_num_votes", joinColumns = @JoinColumn(name = "imdb_const"),
+        foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @MapKeyColumn(name = "file_date")
     @Column(name = "num_votes")
     private Map<String, Integer> numVotes = new HashMap<>();
 
     @ElementCollection
-    @CollectionTable(name = "imdb_ratings_map", joinColumns = @JoinColumn(name = "imdb_const"))
+    @CollectionTable(name = "imdb_ratings_map", joinColumns = @JoinColumn(name = "imdb_const"),
+        foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @MapKeyColumn(name = "file_date")
     @Column(name = "imdb_rating")
     private Map<String, Double> imdbRatings = new HashMap<>();
@@ -66,9 +70,26 @@ public class ImdbRating {
     @Column(name = "directors", length = 2500)
     private String directors;
 
+    // Parsed from directors, the posting list of the director index
+    @ManyToMany
+    @JoinTable(name = "title_directors",
+        joinColumns = @JoinColumn(name = "title_id"),
+        inverseJoinColumns = @JoinColumn(name = "director_id"))
+    private Set<Director> directorSet = new HashSet<>();
+
     @Column(name = "country_of_origin")
     private String countryOfOrigin;
 
+    // Dictionary keys of the low-cardinality columns above, used by the stats queries
+    @Column(name = "title_type_id")
+    private Short titleTypeId;
+
+    @Column(name = "main_genre_id")
+    private Short mainGenreId;
+
+    @Column(name = "country_id")
+    private Short countryId;
+
     // Getters and setters
 
     public int getId() {
@@ -197,6 +218,14 @@ public class ImdbRating {
         this.directors = directors;
     }
 
+    public Set<Director> getDirectorSet() {
+        return directorSet;
+    }
+
+    public void setDirectorSet(Set<Director> directorSet) {
+        this.directorSet = directorSet;
+    }
+
     public String getCountryOfOrigin() {
         return countryOfOrigin;
     }
@@ -204,4 +233,28 @@ public class ImdbRating {
     public void setCountryOfOrigin(String countryOfOrigin) {
         this.countryOfOrigin = countryOfOrigin;
     }
+
+    public Short getTitleTypeId() {
+        return titleTypeId;
+    }
+
+    public void setTitleTypeId(Short titleTypeId) {
+        this.titleTypeId = titleTypeId;
+    }
+
+    public Short getMainGenreId() {
+        return mainGenreId;
+    }
+
+    public void setMainGenreId(Short mainGenreId) {
+        this.mainGenreId = mainGenreId;
+    }
+
+    public Short getCountryId() {
+        return countryId;
+    }
+
+    public void setCountryId(Short countryId) {
+        this.countryId = countryId;
+    }
 }
@@ -0,0 +1,229 @@
+package com.example.imdb_backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Rating and vote distributions of the titles in one snapshot that share a
+ * year, main genre or title type. Sketches of the same dimension can be merged
+ * to answer distribution queries without re-reading the titles.
+ */
+@Entity
+@Table(name = "rating_sketches",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"snapshot", "dimension", "dimension_key"}))
+public class RatingSketch {
+
+    public static final int PERSONAL_BUCKETS = 10;
+    public static final int IMDB_BUCKETS = 100;
+    public static final int VOTES_BUCKETS = 128;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot", nullable = false)
+    private String snapshot;
+
+    @Column(name = "dimension", nullable = false)
+    private String dimension;
+
+    @Column(name = "dimension_key", nullable = false)
+    private String dimensionKey;
+
+    @Column(name = "title_count")
+    private long count;
+
+    // Personal ratings 1-10, one bucket per point
+    @Convert(converter = HistogramConverter.class)
+    @Column(name = "personal_histogram", columnDefinition = "TEXT")
+    private Histogram personalHistogram = new Histogram(PERSONAL_BUCKETS);
+
+    // IMDb ratings 0.0-10.0 in steps of 0.1
+    @Convert(converter = HistogramConverter.class)
+    @Column(name = "imdb_histogram", columnDefinition = "TEXT")
+    private Histogram imdbHistogram = new Histogram(IMDB_BUCKETS);
+
+    // Vote counts on a log2 scale with four buckets per doubling
+    @Convert(converter = HistogramConverter.class)
+    @Column(name = "votes_histogram", columnDefinition = "TEXT")
+    private Histogram votesHistogram = new Histogram(VOTES_BUCKETS);
+
+    // Sum of (your rating - IMDb rating) over titles that have both
+    @Column(name = "gap_sum")
+    private double gapSum;
+
+    @Column(name = "gap_count")
+    private long gapCount;
+
+    // Observed bounds, so quantiles never leave the range of the actual values
+    @Column(name = "imdb_min")
+    private Double imdbMin;
+
+    @Column(name = "imdb_max")
+    private Double imdbMax;
+
+    @Column(name = "votes_min")
+    private Integer votesMin;
+
+    @Column(name = "votes_max")
+    private Integer votesMax;
+
+    public static int imdbBucket(double rating) {
+        return (int) Math.floor(rating * 10);
+    }
+
+    public static double imdbBucketValue(int bucket) {
+        return (bucket + 0.5) / 10.0;
+    }
+
+    public static int votesBucket(int votes) {
+        if (votes <= 0) {
+            return 0;
+        }
+        return 1 + (int) Math.floor(4 * Math.log(votes) / Math.log(2));
+    }
+
+    public static long votesBucketValue(int bucket) {
+        if (bucket <= 0) {
+            return 0;
+        }
+        return Math.round(Math.pow(2, (bucket - 0.5) / 4.0));
+    }
+
+    public void add(Integer yourRating, Double imdbRating, Integer votes) {
+        count++;
+        if (yourRating != null && yourRating > 0) {
+            personalHistogram.add(yourRating - 1);
+        }
+        if (imdbRating != null && imdbRating > 0) {
+            imdbHistogram.add(imdbBucket(imdbRating));
+            imdbMin = imdbMin == null ? imdbRating : Math.min(imdbMin, imdbRating);
+            imdbMax = imdbMax == null ? imdbRating : Math.max(imdbMax, imdbRating);
+        }
+        if (votes != null) {
+            votesHistogram.add(votesBucket(votes));
+            votesMin = votesMin == null ? votes : Math.min(votesMin, votes);
+            votesMax = votesMax == null ? votes : Math.max(votesMax, votes);
+        }
+        if (yourRating != null && yourRating > 0 && imdbRating != null && imdbRating > 0) {
+            gapSum += yourRating - imdbRating;
+            gapCount++;
+        }
+    }
+
+    public void merge(RatingSketch other) {
+        count += other.count;
+        personalHistogram.merge(other.personalHistogram);
+        imdbHistogram.merge(other.imdbHistogram);
+        votesHistogram.merge(other.votesHistogram);
+        gapSum += other.gapSum;
+        gapCount += other.gapCount;
+        imdbMin = other.imdbMin == null ? imdbMin : imdbMin == null ? other.imdbMin : Math.min(imdbMin, other.imdbMin);
+        imdbMax = other.imdbMax == null ? imdbMax : imdbMax == null ? other.imdbMax : Math.max(imdbMax, other.imdbMax);
+        votesMin = other.votesMin == null ? votesMin : votesMin == null ? other.votesMin : Math.min(votesMin, other.votesMin);
+        votesMax = other.votesMax == null ? votesMax : votesMax == null ? other.votesMax : Math.max(votesMax, other.votesMax);
+    }
+
+    /**
+     * The q-th quantile of the IMDb ratings: the midpoint of the bucket that
+     * holds it, clamped to the observed minimum and maximum. Null when empty.
+     */
+    public Double imdbQuantile(double q) {
+        int bucket = imdbHistogram.quantileBucket(q);
+        if (bucket < 0) {
+            return null;
+        }
+        return clamp(imdbBucketValue(bucket), imdbMin, imdbMax);
+    }
+
+    /** The q-th quantile of the vote counts, clamped like {@link #imdbQuantile}. */
+    public Long votesQuantile(double q) {
+        int bucket = votesHistogram.quantileBucket(q);
+        if (bucket < 0) {
+            return null;
+        }
+        double value = clamp(votesBucketValue(bucket), votesMin != null ? votesMin.doubleValue() : null,
+            votesMax != null ? votesMax.doubleValue() : null);
+        return Math.round(value);
+    }
+
+    // Sketches stored before the bounds were kept have none and are not clamped
+    private static double clamp(double value, Double min, Double max) {
+        if (min != null) {
+            value = Math.max(value, min);
+        }
+        if (max != null) {
+            value = Math.min(value, max);
+        }
+        return value;
+    }
+
+    // Getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(String snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getDimensionKey() {
+        return dimensionKey;
+    }
+
+    public void setDimensionKey(String dimensionKey) {
+        this.dimensionKey = dimensionKey;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Histogram getPersonalHistogram() {
+        return personalHistogram;
+    }
+
+    public Histogram getImdbHistogram() {
+        return imdbHistogram;
+    }
+
+    public Histogram getVotesHistogram() {
+        return votesHistogram;
+    }
+
+    public double getGapSum() {
+        return gapSum;
+    }
+
+    public long getGapCount() {
+        return gapCount;
+    }
+
+    public Double getImdbMin() {
+        return imdbMin;
+    }
+
+    public Double getImdbMax() {
+        return imdbMax;
+    }
+
+    public Integer getVotesMin() {
+        return votesMin;
+    }
+
+    public Integer getVotesMax() {
+        return votesMax;
+    }
+}
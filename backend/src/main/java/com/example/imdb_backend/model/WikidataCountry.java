@@ -0,0 +1,33 @@
+package com.example.imdb_backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "wikidata_countries")
+public class WikidataCountry {
+
+    @Id
+    @Column(name = "qid", length = 20)
+    private String qid;
+
+    @Column(name = "label")
+    private String label;
+
+    // Getters and setters
+
+    public String getQid() {
+        return qid;
+    }
+
+    public void setQid(String qid) {
+        this.qid = qid;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.imdb_backend.model;
+
+import jakarta.persistence.*;
+
+/** A film from a local Wikidata dump, keyed by normalized English title and year. */
+@Entity
+@Table(name = "wikidata_titles", indexes = @Index(name = "idx_wikidata_title_year", columnList = "title_key, year"))
+public class WikidataTitle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "qid", length = 20)
+    private String qid;
+
+    @Column(name = "title_key", length = 500)
+    private String titleKey;
+
+    @Column(name = "year")
+    private int year;
+
+    @Column(name = "country_qid", length = 20)
+    private String countryQid;
+
+    // Getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getQid() {
+        return qid;
+    }
+
+    public void setQid(String qid) {
+        this.qid = qid;
+    }
+
+    public String getTitleKey() {
+        return titleKey;
+    }
+
+    public void setTitleKey(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public String getCountryQid() {
+        return countryQid;
+    }
+
+    public void setCountryQid(String countryQid) {
+        this.countryQid = countryQid;
+    }
+}
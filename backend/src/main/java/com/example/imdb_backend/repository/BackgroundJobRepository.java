@@ -0,0 +1,19 @@
+package com.example.imdb_backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.imdb_backend.model.BackgroundJob;
+import com.example.imdb_backend.model.JobStatus;
+
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, Long> {
+    List<BackgroundJob> findByStatusInOrderByIdAsc(Collection<JobStatus> statuses);
+
+    List<BackgroundJob> findByTypeAndStatusIn(String type, Collection<JobStatus> statuses);
+
+    List<BackgroundJob> findAllByOrderByIdDesc();
+}
@@ -0,0 +1,9 @@
+package com.example.imdb_backend.repository;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.imdb_backend.model.CountryDimension;
+
+@Repository
+public interface CountryDimensionRepository extends DimensionRepository<CountryDimension> {
+}
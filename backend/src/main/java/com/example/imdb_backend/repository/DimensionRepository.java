@@ -0,0 +1,10 @@
+package com.example.imdb_backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import com.example.imdb_backend.model.DimensionEntry;
+
+@NoRepositoryBean
+public interface DimensionRepository<T extends DimensionEntry> extends JpaRepository<T, Short> {
+}
@@ -0,0 +1,35 @@
+package com.example.imdb_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.imdb_backend.model.Director;
+import com.example.imdb_backend.model.ImdbRating;
+
+@Repository
+public interface DirectorRepository extends JpaRepository<Director, Integer> {
+    Director findByName(String name);
+
+    @Query(value = """
+        SELECT d.name,
+            COUNT(r.id) AS title_count,
+            AVG(r.your_rating) AS avg_rating,
+            SUM(nv.num_votes) AS total_votes
+        FROM directors d
+        JOIN title_directors td ON td.director_id = d.id
+        JOIN imdb_ratings r ON r.id = td.title_id
+        LEFT JOIN imdb_num_votes nv ON nv.imdb_const = r.id
+            AND nv.file_date = :date
+        GROUP BY d.id, d.name
+        HAVING COUNT(r.id) >= :minTitles
+        ORDER BY title_count DESC, d.name
+        """, nativeQuery = true)
+    List<Object[]> findDirectorStats(@Param("date") String date, @Param("minTitles") int minTitles);
+
+    @Query("SELECT r FROM ImdbRating r JOIN r.directorSet d WHERE d.name = :name ORDER BY r.year, r.title")
+    List<ImdbRating> findTitlesByDirector(@Param("name") String name);
+}
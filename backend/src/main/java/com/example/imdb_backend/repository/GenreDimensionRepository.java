@@ -0,0 +1,9 @@
+package com.example.imdb_backend.repository;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.imdb_backend.model.GenreDimension;
+
+@Repository
+public interface GenreDimensionRepository extends DimensionRepository<GenreDimension> {
+}
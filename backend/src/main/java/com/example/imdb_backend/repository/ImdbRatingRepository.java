@@ -3,9 +3,11 @@ package com.example.imdb_backend.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.imdb_backend.model.ImdbRating;
 
@@ -17,41 +19,96 @@ public interface ImdbRatingRepository extends JpaRepository<ImdbRating, Integer>
 
     List<ImdbRating> findByCountryOfOriginIsNull();
 
-    @Query("SELECT r.year, COUNT(r) " +
-        "FROM ImdbRating r JOIN r.contains c " +
-        "WHERE c LIKE %:fromDate% " +
-        "GROUP BY r.year " +
-        "ORDER BY r.year")
-    List<Object[]> findYearCountsFromDate(@Param("fromDate") String fromDate);
+    List<ImdbRating> findByCountryOfOriginIsNullAndIdGreaterThanOrderByIdAsc(int id);
 
     @Query(value = """
-        SELECT year, COUNT(id) AS movie_count, AVG(your_rating) AS avg_rating
-        FROM imdb_ratings
-        WHERE date_rated <= STR_TO_DATE(:cutoffDate, '%d.%m.%Y')
-        GROUP BY year
-        ORDER BY year
+        SELECT r.* FROM imdb_ratings r
+        WHERE r.directors IS NOT NULL AND r.directors <> ''
+            AND NOT EXISTS (SELECT 1 FROM title_directors td WHERE td.title_id = r.id)
         """, nativeQuery = true)
-    List<Object[]> findYearAverageUntil(@Param("cutoffDate") String cutoffDate);
+    List<ImdbRating> findWithoutDirectorIndex();
 
     @Query(value = """
-        SELECT title_type, COUNT(*) 
-        FROM imdb_ratings
-        WHERE date_rated <= STR_TO_DATE(:fromDate, '%d.%m.%Y')
-        GROUP BY title_type
+        SELECT r.id, r.imdb_const, nv.file_date, nv.num_votes, rm.imdb_rating
+        FROM imdb_ratings r
+        JOIN imdb_num_votes nv ON nv.imdb_const = r.id
+        LEFT JOIN imdb_ratings_map rm ON rm.imdb_const = r.id
+            AND rm.file_date = nv.file_date
         """, nativeQuery = true)
-    List<Object[]> findTitleTypeCountsFromDate(@Param("fromDate") String fromDate);
+    List<Object[]> findVoteHistoryRows();
 
     @Query(value = """
-       SELECT 
-            TRIM(SUBSTRING_INDEX(genres, ',', 1)) AS main_genre,
-            COUNT(id) AS total,
-            AVG(your_rating) AS avg_rating
-        FROM imdb_ratings
-        WHERE date_rated <= STR_TO_DATE(:cutoffDate, '%d.%m.%Y')
-        GROUP BY main_genre
-        ORDER BY total DESC
+        SELECT COUNT(DISTINCT nv.imdb_const)
+        FROM imdb_num_votes nv
+        WHERE nv.file_date IN (SELECT DISTINCT file_date FROM imdb_contains)
+        """, nativeQuery = true)
+    int countVoteHistoryTitles();
+
+    @Query(value = """
+        SELECT r.id, r.original_title, r.year, r.url, r.date_rated,
+            r.title, r.imdb_const, r.title_type, r.directors, r.genres
+        FROM imdb_ratings r
+        """, nativeQuery = true)
+    List<Object[]> findTitleMetadata();
+
+    @Query(value = """
+        SELECT r.id, r.date_rated, r.original_title, r.year, r.url,
+            nv_from.num_votes, nv_to.num_votes,
+            r.title, r.imdb_const, r.title_type, r.directors, r.genres
+        FROM imdb_ratings r
+        JOIN imdb_num_votes nv_from ON nv_from.imdb_const = r.id
+            AND nv_from.file_date = :fromDate
+        JOIN imdb_num_votes nv_to ON nv_to.imdb_const = r.id
+            AND nv_to.file_date = :toDate
+        ORDER BY r.id
+        """, nativeQuery = true)
+    List<Object[]> findVotesBetween(@Param("fromDate") String fromDate, @Param("toDate") String toDate);
+
+    @Query(value = "SELECT COUNT(*) FROM imdb_contains WHERE file_date = :fileDate", nativeQuery = true)
+    int countContainsByFileDate(@Param("fileDate") String fileDate);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM imdb_contains WHERE file_date = :fileDate", nativeQuery = true)
+    int deleteContainsByFileDate(@Param("fileDate") String fileDate);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM imdb_num_votes WHERE file_date = :fileDate", nativeQuery = true)
+    int deleteNumVotesByFileDate(@Param("fileDate") String fileDate);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM imdb_ratings_map WHERE file_date = :fileDate", nativeQuery = true)
+    int deleteImdbRatingsByFileDate(@Param("fileDate") String fileDate);
+
+    @Query(value = """
+        SELECT r.imdb_const, r.original_title, r.year, r.title_type,
+            r.genres, r.directors, r.country_of_origin
+        FROM imdb_ratings r
+        ORDER BY r.id
         """, nativeQuery = true)
-    List<Object[]> findGenreStatsUntil(@Param("cutoffDate") String cutoffDate);
+    List<Object[]> findSimilarityFeatures();
+
+    @Query(value = """
+        SELECT r.date_rated, r.your_rating, r.year, tt.label, g.label, c.label
+        FROM imdb_ratings r
+        LEFT JOIN dim_title_type tt ON tt.id = r.title_type_id
+        LEFT JOIN dim_genre g ON g.id = r.main_genre_id
+        LEFT JOIN dim_country c ON c.id = r.country_id
+        WHERE r.date_rated IS NOT NULL
+        """, nativeQuery = true)
+    List<Object[]> findTimelineRows();
+
+    @Query(value = "SELECT DISTINCT file_date FROM imdb_contains", nativeQuery = true)
+    List<String> findSnapshotDates();
+
+    @Query("SELECT r.year, COUNT(r) " +
+        "FROM ImdbRating r JOIN r.contains c " +
+        "WHERE c = :fromDate " +
+        "GROUP BY r.year " +
+        "ORDER BY r.year")
+    List<Object[]> findYearCountsFromDate(@Param("fromDate") String fromDate);
 
     @Query(value = """
         SELECT r.imdb_const,
@@ -72,13 +129,54 @@ public interface ImdbRatingRepository extends JpaRepository<ImdbRating, Integer>
         JOIN imdb_ratings_map rm ON r.id = rm.imdb_const 
             AND rm.file_date = :date
         JOIN imdb_num_votes nv ON r.id = nv.imdb_const 
-            AND nv.file_date = rm.file_date
+            AND nv.file_date = :date
         """, nativeQuery = true)
     List<Object[]> findRatingsByDate(@Param("date") String date);
 
-    @Query("SELECT r.countryOfOrigin, COUNT(r) " +
-        "FROM ImdbRating r " +
-        "WHERE r.countryOfOrigin IS NOT NULL AND r.countryOfOrigin <> '' " +
-        "GROUP BY r.countryOfOrigin")
+    @Query(value = """
+        SELECT d.label, c.total
+        FROM (
+            SELECT country_id, COUNT(*) AS total
+            FROM imdb_ratings
+            WHERE country_id IS NOT NULL
+            GROUP BY country_id
+        ) c
+        JOIN dim_country d ON d.id = c.country_id
+        """, nativeQuery = true)
     List<Object[]> findMovieCountsByCountry();
+
+    @Query(value = "SELECT DISTINCT title_type FROM imdb_ratings WHERE title_type_id IS NULL AND title_type IS NOT NULL",
+        nativeQuery = true)
+    List<String> findUnencodedTitleTypes();
+
+    @Query(value = "SELECT DISTINCT country_of_origin FROM imdb_ratings WHERE country_id IS NULL AND country_of_origin <> ''",
+        nativeQuery = true)
+    List<String> findUnencodedCountries();
+
+    @Query(value = """
+        SELECT DISTINCT TRIM(SUBSTRING_INDEX(genres, ',', 1))
+        FROM imdb_ratings
+        WHERE main_genre_id IS NULL AND genres IS NOT NULL
+        """, nativeQuery = true)
+    List<String> findUnencodedMainGenres();
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE imdb_ratings SET title_type_id = :id WHERE title_type_id IS NULL AND title_type = :label",
+        nativeQuery = true)
+    int encodeTitleType(@Param("label") String label, @Param("id") Short id);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE imdb_ratings SET country_id = :id WHERE country_id IS NULL AND country_of_origin = :label",
+        nativeQuery = true)
+    int encodeCountry(@Param("label") String label, @Param("id") Short id);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE imdb_ratings SET main_genre_id = :id
+        WHERE main_genre_id IS NULL AND TRIM(SUBSTRING_INDEX(genres, ',', 1)) = :label
+        """, nativeQuery = true)
+    int encodeMainGenre(@Param("label") String label, @Param("id") Short id);
 }
@@ -0,0 +1,24 @@
+package com.example.imdb_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.imdb_backend.model.RatingSketch;
+
+@Repository
+public interface RatingSketchRepository extends JpaRepository<RatingSketch, Long> {
+    List<RatingSketch> findBySnapshotAndDimension(String snapshot, String dimension);
+
+    boolean existsBySnapshot(String snapshot);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RatingSketch s WHERE s.snapshot = :snapshot")
+    int deleteBySnapshot(@Param("snapshot") String snapshot);
+}
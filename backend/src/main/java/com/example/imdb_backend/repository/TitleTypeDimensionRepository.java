@@ -0,0 +1,9 @@
+package com.example.imdb_backend.repository;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.imdb_backend.model.TitleTypeDimension;
+
+@Repository
+public interface TitleTypeDimensionRepository extends DimensionRepository<TitleTypeDimension> {
+}
@@ -0,0 +1,10 @@
+package com.example.imdb_backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.imdb_backend.model.WikidataCountry;
+
+@Repository
+public interface WikidataCountryRepository extends JpaRepository<WikidataCountry, String> {
+}
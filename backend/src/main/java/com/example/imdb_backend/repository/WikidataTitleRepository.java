@@ -0,0 +1,30 @@
+package com.example.imdb_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.imdb_backend.model.WikidataTitle;
+
+@Repository
+public interface WikidataTitleRepository extends JpaRepository<WikidataTitle, Long> {
+
+    @Query(value = """
+        SELECT c.label
+        FROM wikidata_titles t
+        JOIN wikidata_countries c ON c.qid = t.country_qid
+        WHERE t.title_key = :titleKey AND t.year = :year
+        ORDER BY t.id
+        """, nativeQuery = true)
+    List<String> findCountryLabels(@Param("titleKey") String titleKey, @Param("year") int year);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM wikidata_titles", nativeQuery = true)
+    void deleteAllTitles();
+}
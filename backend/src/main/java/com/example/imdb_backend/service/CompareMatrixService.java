@@ -0,0 +1,217 @@
+package com.example.imdb_backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Service;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * Vote and rating deltas of every title between several snapshots, computed in
+ * one pass over each title's history in the {@link VoteHistory} image.
+ */
+@Service
+public class CompareMatrixService {
+
+    // Libraries larger than this are split into chunks and processed in parallel
+    static final int PARALLEL_THRESHOLD = 4096;
+    private static final int CHUNK_SIZE = 1024;
+
+    // Same fields as the /compare search: title, original title, const, type, directors, genres
+    private static final int[] SEARCH_COLUMNS = {5, 1, 6, 7, 8, 9};
+
+    private final VoteHistoryImage voteHistoryImage;
+    private final ImdbRatingRepository ratingRepository;
+
+    public CompareMatrixService(VoteHistoryImage voteHistoryImage, ImdbRatingRepository ratingRepository) {
+        this.voteHistoryImage = voteHistoryImage;
+        this.ratingRepository = ratingRepository;
+    }
+
+    /** Per-chunk results, merged once all chunks are done. */
+    private static class Partial {
+        final List<Map<String, Object>> titles = new ArrayList<>();
+        final long[] titleCounts;
+        final long[] voteDeltas;
+        final long[] ratingDeltaTenths;
+        final long[] ratingCounts;
+
+        Partial(int pairs) {
+            titleCounts = new long[pairs];
+            voteDeltas = new long[pairs];
+            ratingDeltaTenths = new long[pairs];
+            ratingCounts = new long[pairs];
+        }
+
+        Partial merge(Partial other) {
+            titles.addAll(other.titles);
+            for (int p = 0; p < titleCounts.length; p++) {
+                titleCounts[p] += other.titleCounts[p];
+                voteDeltas[p] += other.voteDeltas[p];
+                ratingDeltaTenths[p] += other.ratingDeltaTenths[p];
+                ratingCounts[p] += other.ratingCounts[p];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * @param dates snapshot dates to compare, in the order the caller wants them
+     * @param allPairs compare every pair of dates instead of consecutive ones
+     * @throws IllegalArgumentException if a date is not an imported snapshot
+     */
+    public Map<String, Object> compare(List<String> dates, boolean allPairs, String search, boolean parallel) {
+        VoteHistory history = voteHistoryImage.get();
+
+        int[] columns = new int[dates.size()];
+        for (int i = 0; i < dates.size(); i++) {
+            columns[i] = history.snapshotIndex(dates.get(i));
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Unknown snapshot date: " + dates.get(i));
+            }
+        }
+
+        int pairCount = allPairs ? dates.size() * (dates.size() - 1) / 2 : dates.size() - 1;
+        int[] pairFrom = new int[pairCount];
+        int[] pairTo = new int[pairCount];
+        int pair = 0;
+        for (int i = 0; i < dates.size(); i++) {
+            for (int j = i + 1; j < dates.size(); j++) {
+                if (allPairs || j == i + 1) {
+                    pairFrom[pair] = i;
+                    pairTo[pair] = j;
+                    pair++;
+                }
+            }
+        }
+
+        Map<Integer, Object[]> metadata = new HashMap<>();
+        for (Object[] row : ratingRepository.findTitleMetadata()) {
+            metadata.put(((Number) row[0]).intValue(), row);
+        }
+        String lowerSearch = search != null && !search.isBlank() ? search.toLowerCase() : null;
+
+        int titleCount = history.getTitleCount();
+        int chunks = (titleCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream chunkStream = IntStream.range(0, chunks);
+        if (parallel || titleCount > PARALLEL_THRESHOLD) {
+            chunkStream = chunkStream.parallel();
+        }
+
+        Partial result = chunkStream
+            .mapToObj(chunk -> compareChunk(history, chunk * CHUNK_SIZE, Math.min(titleCount, (chunk + 1) * CHUNK_SIZE),
+                columns, pairFrom, pairTo, metadata, lowerSearch))
+            .reduce(Partial::merge)
+            .orElseGet(() -> new Partial(pairCount));
+
+        List<Map<String, Object>> pairTotals = new ArrayList<>();
+        for (int p = 0; p < pairCount; p++) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("from", dates.get(pairFrom[p]));
+            m.put("to", dates.get(pairTo[p]));
+            m.put("titles", result.titleCounts[p]);
+            m.put("voteDifference", result.voteDeltas[p]);
+            m.put("avgRatingDifference", result.ratingCounts[p] == 0
+                ? 0.0
+                : Math.round(result.ratingDeltaTenths[p] * 100.0 / result.ratingCounts[p]) / 1000.0);
+            pairTotals.add(m);
+        }
+
+        int idCounter = 1;
+        for (Map<String, Object> title : result.titles) {
+            title.put("id", idCounter++);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("dates", dates);
+        response.put("pairs", pairTotals);
+        response.put("titles", result.titles);
+        return response;
+    }
+
+    /**
+     * Reads each title's columns into primitive scratch arrays reused across
+     * the chunk; only the per-title response arrays are allocated.
+     */
+    private Partial compareChunk(VoteHistory history, int from, int to, int[] columns, int[] pairFrom, int[] pairTo,
+                                 Map<Integer, Object[]> metadata, String lowerSearch) {
+        Partial partial = new Partial(pairFrom.length);
+        int[] votes = new int[columns.length];
+        int[] ratings = new int[columns.length];
+
+        for (int title = from; title < to; title++) {
+            Object[] row = metadata.get(history.titleId(title));
+            if (row == null || (lowerSearch != null && !matches(row, lowerSearch))) {
+                continue;
+            }
+
+            // Read this title's column values once, then derive every pair from them
+            int present = 0;
+            for (int i = 0; i < columns.length; i++) {
+                votes[i] = history.votes(columns[i], title);
+                ratings[i] = history.ratingTenths(columns[i], title);
+                if (votes[i] != VoteHistory.MISSING) {
+                    present++;
+                }
+            }
+            if (present < 2) {
+                continue;
+            }
+
+            Integer[] voteDeltas = new Integer[pairFrom.length];
+            Double[] ratingDeltas = new Double[pairFrom.length];
+            for (int p = 0; p < pairFrom.length; p++) {
+                int a = pairFrom[p];
+                int b = pairTo[p];
+                if (votes[a] == VoteHistory.MISSING || votes[b] == VoteHistory.MISSING) {
+                    continue;
+                }
+
+                int voteDelta = votes[b] - votes[a];
+                voteDeltas[p] = voteDelta;
+                partial.titleCounts[p]++;
+                partial.voteDeltas[p] += voteDelta;
+
+                if (ratings[a] != VoteHistory.MISSING && ratings[b] != VoteHistory.MISSING) {
+                    int ratingDelta = ratings[b] - ratings[a];
+                    ratingDeltas[p] = ratingDelta / 10.0;
+                    partial.ratingDeltaTenths[p] += ratingDelta;
+                    partial.ratingCounts[p]++;
+                }
+            }
+
+            Integer[] votesByDate = new Integer[columns.length];
+            Double[] ratingsByDate = new Double[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                votesByDate[i] = votes[i] == VoteHistory.MISSING ? null : votes[i];
+                ratingsByDate[i] = ratings[i] == VoteHistory.MISSING ? null : ratings[i] / 10.0;
+            }
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("const", history.imdbConst(title));
+            m.put("name", row[1] + " (" + row[2] + ")");
+            m.put("link", row[3]);
+            m.put("dateRated", row[4]);
+            m.put("votes", votesByDate);
+            m.put("ratings", ratingsByDate);
+            m.put("voteDifferences", voteDeltas);
+            m.put("ratingDifferences", ratingDeltas);
+            partial.titles.add(m);
+        }
+        return partial;
+    }
+
+    private static boolean matches(Object[] row, String lowerSearch) {
+        for (int column : SEARCH_COLUMNS) {
+            if (row[column] != null && row[column].toString().toLowerCase().contains(lowerSearch)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
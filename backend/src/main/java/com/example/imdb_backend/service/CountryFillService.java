@@ -9,52 +9,94 @@ import com.example.imdb_backend.model.ImdbRating;
 import com.example.imdb_backend.repository.ImdbRatingRepository;
 
 @Service
-public class CountryFillService {
+public class CountryFillService implements JobHandler {
+
+    public static final String JOB_TYPE = "fill-missing-countries";
 
     private final ImdbRatingRepository ratingRepository;
     private final WikidataService wikidataService;
+    private final DimensionDictionary dimensionDictionary;
+    private final WikidataDumpService wikidataDumpService;
+    private final RatingTimeline ratingTimeline;
+    private final SimilarTitlesService similarTitlesService;
 
-    private volatile boolean stopRequested = false;
-
-    public CountryFillService(ImdbRatingRepository ratingRepository, WikidataService wikidataService) {
+    public CountryFillService(ImdbRatingRepository ratingRepository, WikidataService wikidataService,
+                              DimensionDictionary dimensionDictionary, WikidataDumpService wikidataDumpService,
+                              RatingTimeline ratingTimeline, SimilarTitlesService similarTitlesService) {
         this.ratingRepository = ratingRepository;
         this.wikidataService = wikidataService;
+        this.dimensionDictionary = dimensionDictionary;
+        this.wikidataDumpService = wikidataDumpService;
+        this.ratingTimeline = ratingTimeline;
+        this.similarTitlesService = similarTitlesService;
+    }
+
+    @Override
+    public String getJobType() {
+        return JOB_TYPE;
     }
 
-    public void fillMissingCountries() {
-        List<ImdbRating> missing = ratingRepository.findByCountryOfOriginIsNull();
-        stopRequested = false;
+    @Override
+    public void run(JobContext context) {
+        // Titles are walked in id order so the checkpoint skips everything already tried,
+        // including titles for which no country was found
+        List<ImdbRating> missing =
+            ratingRepository.findByCountryOfOriginIsNullAndIdGreaterThanOrderByIdAsc(context.getCheckpoint());
+        int updated = 0;
 
         for (ImdbRating movie : missing) {
-            if (stopRequested) {
+            if (context.isStopRequested()) {
                 System.out.println("Stopping batch update early...");
                 break;
             }
 
             try {
-                Optional<String> countryOpt = wikidataService.getCountryFromWeb(movie.getTitle(), movie.getYear());
+                // Try the local dump index first and only go to the web when it has no answer
+                Optional<String> countryOpt = wikidataDumpService.findCountry(movie.getTitle(), movie.getYear());
+                if (countryOpt.isEmpty()) {
+                    countryOpt = wikidataDumpService.findCountry(movie.getOriginalTitle(), movie.getYear());
+                }
+                boolean resolvedLocally = countryOpt.isPresent();
+                if (!resolvedLocally) {
+                    countryOpt = wikidataService.getCountryFromWeb(movie.getTitle(), movie.getYear());
+                }
 
                 if (countryOpt.isPresent()) {
+                    if (updated == 0) {
+                        ratingTimeline.invalidate();
+                    }
                     movie.setCountryOfOrigin(countryOpt.get());
+                    movie.setCountryId(dimensionDictionary.countryId(countryOpt.get()));
                     // ✅ Save each movie individually (committed immediately)
                     ratingRepository.saveAndFlush(movie);
+                    updated++;
                     System.out.printf("Updated %s (%d) --- %s%n", movie.getTitle(), movie.getYear(), countryOpt.get());
                 } else {
                     System.out.printf("No country found for %s (%d)%n", movie.getTitle(), movie.getYear());
                 }
 
+                context.checkpoint(movie.getId());
+
                 // ⏳ Add delay of 1 second before next request
-                Thread.sleep(1000);
+                if (!resolvedLocally) {
+                    Thread.sleep(1000);
+                }
 
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 System.err.printf("❌ Error updating %s (%d): %s%n",
                     movie.getTitle(), movie.getYear(), e.getMessage());
             }
         }
-    }
 
-    public void requestStop() {
-        stopRequested = true;
+        // New countries change the country timeline and the titles' similarity features,
+        // so both are rebuilt once here rather than after every title. The timeline was
+        // invalidated before the first write, so a build that overlapped it is not kept
+        if (updated > 0) {
+            ratingTimeline.rebuild();
+            similarTitlesService.refresh();
+        }
     }
 }
-
@@ -0,0 +1,130 @@
+package com.example.imdb_backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Builds every section of the stats pages in one request. The section queries
+ * run concurrently on a small bounded executor, so the dashboard takes as long
+ * as its slowest query rather than their sum. A section that fails or misses
+ * its deadline is left out and reported, and the rest are returned anyway.
+ * Interrupting a worker does not stop a JDBC call, so each section runs in a
+ * transaction with the same timeout, which Spring applies to every JPA query
+ * as a statement timeout; the database cancels a query that overruns and the
+ * worker is free for the next dashboard.
+ *
+ * <p>The year count section counts the titles of one snapshot, so it takes a
+ * snapshot name; the other sections take a cutoff on the rated date.
+ */
+@Service
+public class DashboardService {
+
+    private static final int WORKER_THREADS = 5;
+    private static final int QUEUE_CAPACITY = 20;
+
+    private final StatsService statsService;
+    private final long sectionTimeoutMillis;
+    private final TransactionTemplate sectionTransaction;
+    private final ThreadPoolExecutor executor;
+
+    public DashboardService(StatsService statsService, PlatformTransactionManager transactionManager,
+                            @Value("${imdb.dashboard.section-timeout-ms:5000}") long sectionTimeoutMillis) {
+        this.statsService = statsService;
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+        // Transaction timeouts are in whole seconds, so round up rather than cut a section short
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        this.sectionTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMillis + 999)));
+        this.executor = new ThreadPoolExecutor(
+            WORKER_THREADS, WORKER_THREADS,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "dashboard-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    public Map<String, Object> load(String cutoffDate, String snapshot) {
+        long start = System.nanoTime();
+
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        sections.put("yearCount", () -> statsService.yearCounts(snapshot));
+        sections.put("yearlyAverage", () -> statsService.yearlyAverages(cutoffDate));
+        sections.put("titleTypeCount", () -> statsService.titleTypeCounts(cutoffDate));
+        sections.put("genreStats", () -> statsService.genreStats(cutoffDate));
+        sections.put("countryCounts", statsService::countryCounts);
+
+        Map<String, Future<TimedSection>> futures = new LinkedHashMap<>();
+        Map<String, Object> errors = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<Object>> section : sections.entrySet()) {
+            try {
+                futures.put(section.getKey(), executor.submit(
+                    () -> sectionTransaction.execute(status -> TimedSection.run(section.getValue()))));
+            } catch (RejectedExecutionException e) {
+                errors.put(section.getKey(), "Too many dashboard requests in progress");
+            }
+        }
+
+        // Every section gets the same deadline, measured from when they were all submitted
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        Map<String, Object> data = new LinkedHashMap<>();
+        Map<String, Object> timings = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<TimedSection>> entry : futures.entrySet()) {
+            String name = entry.getKey();
+            try {
+                TimedSection section = entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                data.put(name, section.value());
+                timings.put(name, section.millis());
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                errors.put(name, "Timed out after " + sectionTimeoutMillis + " ms");
+            } catch (ExecutionException e) {
+                errors.put(name, String.valueOf(e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.getValue().cancel(true);
+                errors.put(name, "Interrupted");
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("cutoffDate", cutoffDate);
+        response.put("snapshot", snapshot);
+        response.put("complete", errors.isEmpty());
+        response.putAll(data);
+        response.put("timings", timings);
+        response.put("errors", errors);
+        response.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record TimedSection(Object value, long millis) {
+
+        static TimedSection run(Supplier<Object> query) {
+            long start = System.nanoTime();
+            Object value = query.get();
+            return new TimedSection(value, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.imdb_backend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import com.example.imdb_backend.model.CountryDimension;
+import com.example.imdb_backend.model.DimensionEntry;
+import com.example.imdb_backend.model.GenreDimension;
+import com.example.imdb_backend.model.ImdbRating;
+import com.example.imdb_backend.model.TitleTypeDimension;
+import com.example.imdb_backend.repository.CountryDimensionRepository;
+import com.example.imdb_backend.repository.DimensionRepository;
+import com.example.imdb_backend.repository.GenreDimensionRepository;
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+import com.example.imdb_backend.repository.TitleTypeDimensionRepository;
+
+/**
+ * In-memory label to smallint key dictionaries for the title type, country and
+ * main genre dimensions. New labels are written to their dimension table the
+ * first time they are seen during import or enrichment.
+ */
+@Service
+public class DimensionDictionary {
+
+    private final Dictionary<TitleTypeDimension> titleTypes;
+    private final Dictionary<CountryDimension> countries;
+    private final Dictionary<GenreDimension> genres;
+    private final ImdbRatingRepository ratingRepository;
+    private final RatingTimeline ratingTimeline;
+
+    public DimensionDictionary(TitleTypeDimensionRepository titleTypeRepository,
+                               CountryDimensionRepository countryRepository,
+                               GenreDimensionRepository genreRepository,
+                               ImdbRatingRepository ratingRepository,
+                               RatingTimeline ratingTimeline) {
+        this.titleTypes = new Dictionary<>(titleTypeRepository, TitleTypeDimension::new);
+        this.countries = new Dictionary<>(countryRepository, CountryDimension::new);
+        this.genres = new Dictionary<>(genreRepository, GenreDimension::new);
+        this.ratingRepository = ratingRepository;
+        this.ratingTimeline = ratingTimeline;
+    }
+
+    @PostConstruct
+    public void load() {
+        titleTypes.load();
+        countries.load();
+        genres.load();
+    }
+
+    public Short titleTypeId(String titleType) {
+        return titleTypes.resolve(titleType);
+    }
+
+    public Short countryId(String country) {
+        return countries.resolve(country);
+    }
+
+    public Short genreId(String genre) {
+        return genres.resolve(genre);
+    }
+
+    /** Sets the dictionary keys of a rating from its title type, genres and country strings. */
+    public void encode(ImdbRating rating) {
+        rating.setTitleTypeId(titleTypeId(rating.getTitleType()));
+        rating.setMainGenreId(genreId(mainGenre(rating.getGenres())));
+        rating.setCountryId(countryId(rating.getCountryOfOrigin()));
+    }
+
+    /** The first entry of a comma-separated genre list, as grouped by the genre stats. */
+    public static String mainGenre(String genres) {
+        if (genres == null) {
+            return null;
+        }
+        int comma = genres.indexOf(',');
+        return (comma >= 0 ? genres.substring(0, comma) : genres).trim();
+    }
+
+    /** Encodes rows written before the dimension tables existed. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int updated = backfill(ratingRepository.findUnencodedTitleTypes(), titleTypes, ratingRepository::encodeTitleType)
+            + backfill(ratingRepository.findUnencodedCountries(), countries, ratingRepository::encodeCountry)
+            + backfill(ratingRepository.findUnencodedMainGenres(), genres, ratingRepository::encodeMainGenre);
+
+        if (updated > 0) {
+            // The timeline groups by the labels of these keys, so rows it saw without keys moved group
+            ratingTimeline.invalidate();
+            System.out.printf("Encoded dimension keys for %d rating rows%n", updated);
+        }
+    }
+
+    private int backfill(List<String> labels, Dictionary<?> dictionary, BiFunction<String, Short, Integer> update) {
+        int updated = 0;
+        for (String label : labels) {
+            Short id = dictionary.resolve(label);
+            if (id != null) {
+                updated += update.apply(label, id);
+            }
+        }
+        return updated;
+    }
+
+    private static class Dictionary<T extends DimensionEntry> {
+
+        private final DimensionRepository<T> repository;
+        private final Supplier<T> factory;
+        private final Map<String, Short> ids = new ConcurrentHashMap<>();
+        private short maxId = 0;
+
+        Dictionary(DimensionRepository<T> repository, Supplier<T> factory) {
+            this.repository = repository;
+            this.factory = factory;
+        }
+
+        synchronized void load() {
+            for (T entry : repository.findAll()) {
+                ids.put(entry.getLabel(), entry.getId());
+                maxId = (short) Math.max(maxId, entry.getId());
+            }
+        }
+
+        Short resolve(String label) {
+            if (label == null || label.isBlank()) {
+                return null;
+            }
+
+            Short id = ids.get(label);
+            return id != null ? id : insert(label);
+        }
+
+        private synchronized Short insert(String label) {
+            Short id = ids.get(label);
+            if (id != null) {
+                return id;
+            }
+            if (maxId == Short.MAX_VALUE) {
+                throw new IllegalStateException("Dimension is full, cannot add " + label);
+            }
+
+            T entry = factory.get();
+            entry.setId(++maxId);
+            entry.setLabel(label);
+            repository.save(entry);
+
+            ids.put(label, entry.getId());
+            return entry.getId();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.imdb_backend.service;
+
+import java.sql.DatabaseMetaData;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.imdb_backend.model.Director;
+import com.example.imdb_backend.model.ImdbRating;
+import com.example.imdb_backend.repository.DirectorRepository;
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * Splits the comma-separated {@code directors} column into the directors table
+ * and the title_directors posting list.
+ */
+@Service
+public class DirectorIndexService {
+
+    static final String NAME_COLLATION = "utf8mb4_bin";
+
+    private final DirectorRepository directorRepository;
+    private final ImdbRatingRepository ratingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Director> directorsByName = new ConcurrentHashMap<>();
+
+    public DirectorIndexService(DirectorRepository directorRepository, ImdbRatingRepository ratingRepository,
+                                JdbcTemplate jdbcTemplate) {
+        this.directorRepository = directorRepository;
+        this.ratingRepository = ratingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static Set<String> parseNames(String directors) {
+        Set<String> names = new LinkedHashSet<>();
+        if (directors == null) {
+            return names;
+        }
+        for (String name : directors.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                names.add(trimmed);
+            }
+        }
+        return names;
+    }
+
+    /** Links a rating to its directors; the rating still has to be saved by the caller. */
+    public void index(ImdbRating rating) {
+        for (String name : parseNames(rating.getDirectors())) {
+            rating.getDirectorSet().add(resolve(name));
+        }
+    }
+
+    /**
+     * Indexes titles imported before the director index existed. Runs in one
+     * transaction so the titles' lazy director sets can be filled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        migrateNameCollation();
+
+        List<ImdbRating> unindexed = ratingRepository.findWithoutDirectorIndex();
+        if (unindexed.isEmpty()) {
+            return;
+        }
+
+        for (ImdbRating rating : unindexed) {
+            index(rating);
+        }
+        ratingRepository.saveAll(unindexed);
+        System.out.printf("Indexed directors of %d titles%n", unindexed.size());
+    }
+
+    /**
+     * Tables created before the name column was declared binary keep MySQL's
+     * accent-insensitive collation, which merged distinct directors. Those
+     * are switched over once and every title is indexed again.
+     */
+    private synchronized void migrateNameCollation() {
+        if (!isMySql()) {
+            return;
+        }
+
+        List<String> collations = jdbcTemplate.queryForList("""
+            SELECT COLLATION_NAME FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'directors' AND COLUMN_NAME = 'name'
+            """, String.class);
+        if (collations.isEmpty() || NAME_COLLATION.equals(collations.get(0))) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE directors MODIFY name VARCHAR(255) CHARACTER SET utf8mb4 COLLATE "
+            + NAME_COLLATION + " NOT NULL");
+        int unlinked = jdbcTemplate.update("DELETE FROM title_directors");
+        directorsByName.clear();
+        System.out.printf("Switched director names to %s, re-indexing %d title links%n", NAME_COLLATION, unlinked);
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+            return "MySQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private synchronized Director resolve(String name) {
+        Director director = directorsByName.get(name);
+        if (director != null) {
+            return director;
+        }
+
+        director = directorRepository.findByName(name);
+        if (director == null) {
+            director = new Director();
+            director.setName(name);
+            director = directorRepository.save(director);
+        }
+        directorsByName.put(name, director);
+        return director;
+    }
+}
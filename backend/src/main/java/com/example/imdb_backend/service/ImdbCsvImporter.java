@@ -19,6 +19,30 @@ public class ImdbCsvImporter {
     @Autowired
     private ImdbRatingRepository imdbRatingRepository;
 
+    @Autowired
+    private DimensionDictionary dimensionDictionary;
+
+    @Autowired
+    private SnapshotResponseCache snapshotResponseCache;
+
+    @Autowired
+    private RatingDistributionService ratingDistributionService;
+
+    @Autowired
+    private DirectorIndexService directorIndexService;
+
+    @Autowired
+    private VoteHistoryImage voteHistoryImage;
+
+    @Autowired
+    private SnapshotPartitionService snapshotPartitionService;
+
+    @Autowired
+    private SimilarTitlesService similarTitlesService;
+
+    @Autowired
+    private RatingTimeline ratingTimeline;
+
     public String importCsv(MultipartFile file) {
         String filename = file.getOriginalFilename();
         if (filename == null || !filename.endsWith(".csv")) {
@@ -26,12 +50,17 @@ public class ImdbCsvImporter {
         }
 
         String fileDate = filename.replace(".csv", "").trim();
+        snapshotPartitionService.ensurePartition(fileDate);
+
+        // A timeline build that overlaps the import would miss some of its rows, so it is not kept
+        ratingTimeline.invalidate();
 
         try (CSVReader reader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
             reader.readNext();
 
             String[] line;
             int importedCount = 0;
+            RatingDistributionService.SketchBuilder sketches = ratingDistributionService.newBuilder(fileDate);
 
             while ((line = reader.readNext()) != null) {
                 if (line.length < 14) continue;
@@ -61,6 +90,8 @@ public class ImdbCsvImporter {
                     ratingEntity.setGenres(currentLine[10]);
                     ratingEntity.setReleaseDate(currentLine[12]);
                     ratingEntity.setDirectors(currentLine[13]);
+                    dimensionDictionary.encode(ratingEntity);
+                    directorIndexService.index(ratingEntity);
                 }
 
                 // Add fileDate to contains list if not already
@@ -73,9 +104,19 @@ public class ImdbCsvImporter {
                 ratingEntity.getImdbRatings().put(fileDate, rating);
 
                 imdbRatingRepository.save(ratingEntity);
+                sketches.add(ratingEntity.getYear(), ratingEntity.getGenres(), ratingEntity.getTitleType(),
+                    ratingEntity.getYourRating(), rating, votes);
                 importedCount++;
             }
 
+            ratingDistributionService.store(sketches);
+
+            snapshotResponseCache.warm(fileDate);
+            voteHistoryImage.rebuild();
+            similarTitlesService.refresh();
+            // Rebuilt in full rather than patched: one query over the ratings table, small next to the import
+            ratingTimeline.rebuild();
+
             return "Successfully imported " + importedCount + " records from " + filename;
 
         } catch (Exception e) {
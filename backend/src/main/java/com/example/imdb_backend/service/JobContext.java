@@ -0,0 +1,78 @@
+package com.example.imdb_backend.service;
+
+import com.example.imdb_backend.model.BackgroundJob;
+import com.example.imdb_backend.repository.BackgroundJobRepository;
+
+/**
+ * Progress and cancellation handle passed to a running {@link JobHandler}.
+ * Checkpoints are kept in memory and written to the job record every
+ * {@link #FLUSH_INTERVAL} items so a restart only repeats a few of them.
+ */
+public class JobContext {
+
+    static final int FLUSH_INTERVAL = 10;
+
+    private final BackgroundJob job;
+    private final BackgroundJobRepository jobRepository;
+
+    private volatile boolean cancelRequested = false;
+    private int unflushed = 0;
+
+    JobContext(BackgroundJob job, BackgroundJobRepository jobRepository) {
+        this.job = job;
+        this.jobRepository = jobRepository;
+    }
+
+    public Long getJobId() {
+        return job.getId();
+    }
+
+    public String getParameter() {
+        return job.getParameter();
+    }
+
+    /** Id of the last item processed before this run, or 0 for a fresh job. */
+    public int getCheckpoint() {
+        return job.getCheckpoint() != null ? job.getCheckpoint() : 0;
+    }
+
+    public void checkpoint(int lastProcessedId) {
+        job.setCheckpoint(lastProcessedId);
+        job.setProcessedCount(job.getProcessedCount() + 1);
+
+        if (++unflushed >= FLUSH_INTERVAL) {
+            flush();
+        }
+    }
+
+    /**
+     * Records a position that covers {@code processed} items and writes it out
+     * right away, for handlers that commit their own work in batches.
+     */
+    public void checkpointBatch(int position, int processed) {
+        job.setCheckpoint(position);
+        job.setProcessedCount(job.getProcessedCount() + processed);
+        flush();
+    }
+
+    public boolean isStopRequested() {
+        return cancelRequested || Thread.currentThread().isInterrupted();
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void cancel() {
+        cancelRequested = true;
+    }
+
+    BackgroundJob getJob() {
+        return job;
+    }
+
+    synchronized void flush() {
+        jobRepository.save(job);
+        unflushed = 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.imdb_backend.service;
+
+/**
+ * A long-running operation that can be executed by the {@link JobScheduler}.
+ * Implementations should resume after {@link JobContext#getCheckpoint()},
+ * report progress through {@link JobContext#checkpoint(int)} and return as
+ * soon as {@link JobContext#isStopRequested()} becomes true.
+ */
+public interface JobHandler {
+
+    String getJobType();
+
+    void run(JobContext context) throws Exception;
+}
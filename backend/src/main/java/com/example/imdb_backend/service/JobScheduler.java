@@ -0,0 +1,210 @@
+package com.example.imdb_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import com.example.imdb_backend.model.BackgroundJob;
+import com.example.imdb_backend.model.JobStatus;
+import com.example.imdb_backend.repository.BackgroundJobRepository;
+
+/**
+ * Runs {@link JobHandler}s on a small bounded executor and keeps their state in
+ * the {@code background_jobs} table. Jobs that were queued or running when the
+ * application stopped are resumed from their last checkpoint on startup.
+ */
+@Service
+public class JobScheduler {
+
+    private static final int WORKER_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 16;
+    static final String FAILED_MESSAGE = "Job failed, see the server log for details";
+
+    private static final EnumSet<JobStatus> ACTIVE_STATUSES = EnumSet.of(JobStatus.QUEUED, JobStatus.RUNNING);
+
+    private final BackgroundJobRepository jobRepository;
+    private final Map<String, JobHandler> handlers;
+    private final Map<Long, JobContext> activeJobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    private volatile boolean shuttingDown = false;
+
+    public JobScheduler(BackgroundJobRepository jobRepository, List<JobHandler> handlers) {
+        this.jobRepository = jobRepository;
+        this.handlers = handlers.stream()
+            .collect(Collectors.toMap(JobHandler::getJobType, Function.identity()));
+        this.executor = new ThreadPoolExecutor(
+            WORKER_THREADS, WORKER_THREADS,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "background-job");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Queues a new job of the given type. If one is already queued or running
+     * with the same parameter, that job is returned instead of starting a
+     * second one; if its parameter differs, an IllegalStateException is thrown.
+     * Submission is synchronized so concurrent requests cannot both insert.
+     */
+    public BackgroundJob submit(String type) {
+        return submit(type, null);
+    }
+
+    public synchronized BackgroundJob submit(String type, String parameter) {
+        if (!handlers.containsKey(type)) {
+            throw new IllegalArgumentException("Unknown job type: " + type);
+        }
+
+        List<BackgroundJob> existing = jobRepository.findByTypeAndStatusIn(type, ACTIVE_STATUSES);
+        if (!existing.isEmpty()) {
+            BackgroundJob active = existing.get(0);
+            if (!Objects.equals(active.getParameter(), parameter)) {
+                throw new IllegalStateException("Job " + active.getId() + " (" + type + ") is already running for "
+                    + active.getParameter());
+            }
+            return active;
+        }
+
+        BackgroundJob job = new BackgroundJob();
+        job.setType(type);
+        job.setParameter(parameter);
+        job.setStatus(JobStatus.QUEUED);
+        job.setCheckpoint(0);
+        job.setCreatedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+
+        dispatch(job);
+        return job;
+    }
+
+    public List<BackgroundJob> findAll() {
+        return jobRepository.findAllByOrderByIdDesc();
+    }
+
+    public Optional<BackgroundJob> findById(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * Requests cancellation of a job. Running jobs stop at their next item and
+     * record the cancellation themselves; returns false if the job has already
+     * finished or does not exist.
+     */
+    public boolean cancel(Long id) {
+        JobContext context = activeJobs.get(id);
+        if (context != null) {
+            context.cancel();
+            return true;
+        }
+
+        Optional<BackgroundJob> job = jobRepository.findById(id);
+        if (job.isEmpty() || job.get().getStatus().isFinished()) {
+            return false;
+        }
+
+        finish(job.get(), JobStatus.CANCELLED, "Cancelled before it was resumed");
+        return true;
+    }
+
+    public int cancelByType(String type) {
+        int cancelled = 0;
+        for (BackgroundJob job : jobRepository.findByTypeAndStatusIn(type, ACTIVE_STATUSES)) {
+            if (cancel(job.getId())) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (BackgroundJob job : jobRepository.findByStatusInOrderByIdAsc(ACTIVE_STATUSES)) {
+            if (!handlers.containsKey(job.getType())) {
+                finish(job, JobStatus.FAILED, "No handler registered for job type " + job.getType());
+                continue;
+            }
+
+            System.out.printf("Resuming job %d (%s) after id %d%n", job.getId(), job.getType(), job.getCheckpoint());
+            job.setStatus(JobStatus.QUEUED);
+            dispatch(jobRepository.save(job));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        executor.shutdownNow();
+    }
+
+    private void dispatch(BackgroundJob job) {
+        JobContext context = new JobContext(job, jobRepository);
+        activeJobs.put(job.getId(), context);
+
+        try {
+            executor.execute(() -> execute(context));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(job.getId());
+            finish(job, JobStatus.FAILED, "Job queue is full");
+        }
+    }
+
+    private void execute(JobContext context) {
+        BackgroundJob job = context.getJob();
+
+        try {
+            if (context.isCancelRequested()) {
+                finish(job, JobStatus.CANCELLED, null);
+                return;
+            }
+
+            job.setStatus(JobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            context.flush();
+
+            handlers.get(job.getType()).run(context);
+
+            if (context.isCancelRequested()) {
+                finish(job, JobStatus.CANCELLED, null);
+            } else if (shuttingDown) {
+                // Leave the job RUNNING so it is picked up again on the next startup
+                context.flush();
+            } else {
+                finish(job, JobStatus.COMPLETED, null);
+            }
+        } catch (Exception e) {
+            // The job message is shown to every client, so the cause is only logged here
+            System.err.printf("❌ Job %d (%s) failed: %s%n", job.getId(), job.getType(), e);
+            e.printStackTrace();
+            finish(job, JobStatus.FAILED, FAILED_MESSAGE);
+        } finally {
+            activeJobs.remove(job.getId());
+        }
+    }
+
+    private void finish(BackgroundJob job, JobStatus status, String message) {
+        job.setStatus(status);
+        job.setMessage(message != null && message.length() > 1000 ? message.substring(0, 1000) : message);
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepository.save(job);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.imdb_backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.imdb_backend.model.Histogram;
+import com.example.imdb_backend.model.RatingSketch;
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+import com.example.imdb_backend.repository.RatingSketchRepository;
+
+/**
+ * Maintains per-snapshot rating sketches for the year, main genre and title
+ * type dimensions and answers distribution queries by merging them.
+ */
+@Service
+public class RatingDistributionService {
+
+    public static final String YEAR = "year";
+    public static final String GENRE = "genre";
+    public static final String TITLE_TYPE = "titleType";
+    public static final String ALL = "all";
+
+    public static final Set<String> DIMENSIONS = Set.of(YEAR, GENRE, TITLE_TYPE, ALL);
+
+    private final RatingSketchRepository sketchRepository;
+    private final ImdbRatingRepository ratingRepository;
+    private final SnapshotCatalog snapshotCatalog;
+
+    public RatingDistributionService(RatingSketchRepository sketchRepository, ImdbRatingRepository ratingRepository,
+                                     SnapshotCatalog snapshotCatalog) {
+        this.sketchRepository = sketchRepository;
+        this.ratingRepository = ratingRepository;
+        this.snapshotCatalog = snapshotCatalog;
+    }
+
+    /** Collects the sketches of one snapshot while its titles are imported. */
+    public static class SketchBuilder {
+
+        private final String snapshot;
+        private final Map<String, RatingSketch> sketches = new HashMap<>();
+
+        SketchBuilder(String snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        public void add(Integer year, String genres, String titleType,
+                        Integer yourRating, Double imdbRating, Integer votes) {
+            sketch(ALL, ALL).add(yourRating, imdbRating, votes);
+            if (year != null) {
+                sketch(YEAR, year.toString()).add(yourRating, imdbRating, votes);
+            }
+            String genre = DimensionDictionary.mainGenre(genres);
+            if (genre != null && !genre.isEmpty()) {
+                sketch(GENRE, genre).add(yourRating, imdbRating, votes);
+            }
+            if (titleType != null && !titleType.isEmpty()) {
+                sketch(TITLE_TYPE, titleType).add(yourRating, imdbRating, votes);
+            }
+        }
+
+        private RatingSketch sketch(String dimension, String key) {
+            return sketches.computeIfAbsent(dimension + "|" + key, k -> {
+                RatingSketch sketch = new RatingSketch();
+                sketch.setSnapshot(snapshot);
+                sketch.setDimension(dimension);
+                sketch.setDimensionKey(key);
+                return sketch;
+            });
+        }
+    }
+
+    public SketchBuilder newBuilder(String snapshot) {
+        return new SketchBuilder(snapshot);
+    }
+
+    /** Replaces the stored sketches of the builder's snapshot. */
+    public void store(SketchBuilder builder) {
+        sketchRepository.deleteBySnapshot(builder.snapshot);
+        sketchRepository.saveAll(builder.sketches.values());
+    }
+
+    public void deleteSnapshot(String snapshot) {
+        sketchRepository.deleteBySnapshot(snapshot);
+    }
+
+    /** Builds sketches for snapshots imported before sketches were kept. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (String snapshot : snapshotCatalog.snapshots()) {
+            if (sketchRepository.existsBySnapshot(snapshot)) {
+                continue;
+            }
+
+            SketchBuilder builder = newBuilder(snapshot);
+            for (Object[] row : ratingRepository.findRatingsByDate(snapshot)) {
+                builder.add(
+                    row[7] != null ? ((Number) row[7]).intValue() : null,
+                    (String) row[10],
+                    (String) row[4],
+                    row[8] != null ? ((Number) row[8]).intValue() : null,
+                    row[5] != null ? ((Number) row[5]).doubleValue() : null,
+                    row[11] != null ? ((Number) row[11]).intValue() : null);
+            }
+            store(builder);
+            System.out.printf("Built rating sketches for snapshot %s%n", snapshot);
+        }
+    }
+
+    /**
+     * Distribution per key of a dimension in one snapshot. With {@code keys}
+     * only those keys are returned; with {@code merge} they are combined into
+     * a single entry.
+     */
+    public List<Map<String, Object>> distribution(String snapshot, String dimension, Set<String> keys, boolean merge) {
+        List<RatingSketch> sketches = sketchRepository.findBySnapshotAndDimension(snapshot, dimension).stream()
+            .filter(s -> keys == null || keys.isEmpty() || keys.contains(s.getDimensionKey()))
+            .sorted(Comparator.comparing(RatingSketch::getDimensionKey))
+            .toList();
+
+        if (!merge) {
+            return sketches.stream().map(RatingDistributionService::describe).toList();
+        }
+
+        RatingSketch merged = new RatingSketch();
+        merged.setSnapshot(snapshot);
+        merged.setDimension(dimension);
+        merged.setDimensionKey(keys == null || keys.isEmpty() ? ALL : String.join(",", keys));
+        sketches.forEach(merged::merge);
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        result.add(describe(merged));
+        return result;
+    }
+
+    private static Map<String, Object> describe(RatingSketch sketch) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", sketch.getDimensionKey());
+        m.put("key", sketch.getDimensionKey());
+        m.put("count", sketch.getCount());
+        m.put("personalHistogram", sketch.getPersonalHistogram().getCounts());
+        m.put("imdbHistogram", collapse(sketch.getImdbHistogram(), RatingSketch.PERSONAL_BUCKETS));
+
+        Double imdbMedian = sketch.imdbQuantile(0.5);
+        m.put("medianImdbRating", imdbMedian == null ? null : round(imdbMedian));
+        m.put("medianVotes", sketch.votesQuantile(0.5));
+        m.put("p90Votes", sketch.votesQuantile(0.9));
+
+        m.put("avgGap", sketch.getGapCount() == 0 ? null : round(sketch.getGapSum() / sketch.getGapCount()));
+        return m;
+    }
+
+    // Folds the fine IMDb histogram into one bucket per rating point for the response
+    private static long[] collapse(Histogram histogram, int buckets) {
+        long[] counts = new long[buckets];
+        int width = histogram.size() / buckets;
+        for (int i = 0; i < histogram.size(); i++) {
+            counts[Math.min(i / width, buckets - 1)] += histogram.getCounts()[i];
+        }
+        return counts;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.imdb_backend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * Day-granularity prefix sums over {@code dateRated}: for every day, how many
+ * titles had been rated up to and including it and the sum of their personal
+ * ratings, overall and per year, title type, main genre and country. Any
+ * cutoff is then a single array lookup per key and any window a difference of
+ * two, so the stats pages and the activity chart never re-aggregate the
+ * ratings table. Title types, main genres and countries are keyed by the
+ * labels of their dimension keys, so they group like the dimension tables.
+ */
+@Service
+public class RatingTimeline {
+
+    public static final String COUNTRY = "country";
+
+    public static final Set<String> DIMENSIONS = Set.of(
+        RatingDistributionService.ALL, RatingDistributionService.YEAR, RatingDistributionService.TITLE_TYPE,
+        RatingDistributionService.GENRE, COUNTRY);
+
+    public static final String DAY = "day";
+    public static final String WEEK = "week";
+    public static final String MONTH = "month";
+
+    public static final Set<String> BUCKETS = Set.of(DAY, WEEK, MONTH);
+
+    public static final int MAX_BUCKETS = 5000;
+
+    private final ImdbRatingRepository ratingRepository;
+
+    private volatile Map<String, Map<String, Series>> current;
+
+    // Bumped by invalidate, so builds that overlap it are not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public RatingTimeline(ImdbRatingRepository ratingRepository) {
+        this.ratingRepository = ratingRepository;
+    }
+
+    /** Titles, rated titles and rating sum over a range of days. */
+    public record Totals(long count, long ratedCount, long ratingSum) {
+
+        public Double avgRating() {
+            return ratedCount > 0 ? Math.round(ratingSum * 100.0 / ratedCount) / 100.0 : null;
+        }
+    }
+
+    /**
+     * Cumulative counts of one key. Index {@code i} holds the totals of every
+     * day before {@code firstDay + i}; cutoffs outside the key's own range are
+     * clamped, so sparse keys only pay for the days they were rated on.
+     */
+    private static final class Series {
+
+        private final long firstDay;
+        private final int[] counts;
+        private final int[] rated;
+        private final int[] ratingSums;
+
+        Series(long firstDay, long lastDay) {
+            int length = (int) (lastDay - firstDay) + 2;
+            this.firstDay = firstDay;
+            this.counts = new int[length];
+            this.rated = new int[length];
+            this.ratingSums = new int[length];
+        }
+
+        void add(long day, int rating) {
+            int i = (int) (day - firstDay) + 1;
+            counts[i]++;
+            if (rating > 0) {
+                rated[i]++;
+                ratingSums[i] += rating;
+            }
+        }
+
+        void accumulate() {
+            for (int i = 1; i < counts.length; i++) {
+                counts[i] += counts[i - 1];
+                rated[i] += rated[i - 1];
+                ratingSums[i] += ratingSums[i - 1];
+            }
+        }
+
+        /** Index of the prefix that covers every day up to and including {@code day}. */
+        int prefix(long day) {
+            return (int) Math.max(0, Math.min(counts.length - 1, day - firstDay + 1));
+        }
+
+        Totals until(long day) {
+            int i = prefix(day);
+            return new Totals(counts[i], rated[i], ratingSums[i]);
+        }
+
+        Totals between(long fromDay, long toDay) {
+            int from = prefix(fromDay - 1);
+            int to = prefix(toDay);
+            return new Totals(counts[to] - counts[from], rated[to] - rated[from], ratingSums[to] - ratingSums[from]);
+        }
+    }
+
+    /** Totals of every key of a dimension rated on or before the cutoff, leaving out empty keys. */
+    public Map<String, Totals> until(String dimension, LocalDate cutoff) {
+        long day = cutoff.toEpochDay();
+        Map<String, Totals> result = new HashMap<>();
+        for (Map.Entry<String, Series> entry : get().get(dimension).entrySet()) {
+            Totals totals = entry.getValue().until(day);
+            if (totals.count() > 0) {
+                result.put(entry.getKey(), totals);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ratings per day, ISO week or calendar month between two dates, with a
+     * breakdown by key unless the dimension is {@code all}. Missing bounds
+     * default to the first and last rated day.
+     */
+    public Map<String, Object> activity(LocalDate from, LocalDate to, String bucket, String dimension) {
+        Map<String, Map<String, Series>> timeline = get();
+        Series all = timeline.get(RatingDistributionService.ALL).get(RatingDistributionService.ALL);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (all == null) {
+            response.put("buckets", List.of());
+            return response;
+        }
+
+        LocalDate first = from != null ? from : LocalDate.ofEpochDay(all.firstDay);
+        LocalDate last = to != null ? to : LocalDate.ofEpochDay(all.firstDay + all.counts.length - 2);
+        if (last.isBefore(first)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+
+        List<LocalDate> starts = bucketStarts(first, last, bucket);
+        Map<String, Series> breakdown = dimension.equals(RatingDistributionService.ALL)
+            ? null
+            : timeline.get(dimension);
+
+        List<Map<String, Object>> buckets = new ArrayList<>(starts.size());
+        for (int b = 0; b < starts.size(); b++) {
+            long startDay = starts.get(b).toEpochDay();
+            long endDay = b + 1 < starts.size() ? starts.get(b + 1).toEpochDay() - 1 : last.toEpochDay();
+
+            Totals totals = all.between(startDay, endDay);
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("start", LocalDate.ofEpochDay(startDay).toString());
+            m.put("end", LocalDate.ofEpochDay(endDay).toString());
+            m.put("count", totals.count());
+            m.put("avgRating", totals.avgRating());
+            m.put("cumulativeCount", all.until(endDay).count());
+
+            if (breakdown != null) {
+                List<Map<String, Object>> keys = new ArrayList<>();
+                for (Map.Entry<String, Series> entry : breakdown.entrySet()) {
+                    Totals keyTotals = entry.getValue().between(startDay, endDay);
+                    if (keyTotals.count() > 0) {
+                        Map<String, Object> k = new LinkedHashMap<>();
+                        k.put("key", entry.getKey());
+                        k.put("count", keyTotals.count());
+                        k.put("avgRating", keyTotals.avgRating());
+                        keys.add(k);
+                    }
+                }
+                m.put("keys", keys);
+            }
+            buckets.add(m);
+        }
+
+        Totals window = all.between(first.toEpochDay(), last.toEpochDay());
+        response.put("from", first.toString());
+        response.put("to", last.toString());
+        response.put("bucket", bucket);
+        response.put("dimension", dimension);
+        response.put("count", window.count());
+        response.put("avgRating", window.avgRating());
+        response.put("buckets", buckets);
+        return response;
+    }
+
+    /**
+     * Drops the index; it is rebuilt from the database on next use. A build
+     * already in progress started from older data, so it is not stored.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        current = null;
+    }
+
+    public synchronized void rebuild() {
+        long started = generation.get();
+        Map<String, Map<String, Series>> timeline = build();
+        if (generation.get() == started) {
+            current = timeline;
+        }
+    }
+
+    private Map<String, Map<String, Series>> get() {
+        Map<String, Map<String, Series>> timeline = current;
+        if (timeline == null) {
+            synchronized (this) {
+                timeline = current;
+                if (timeline == null) {
+                    long started = generation.get();
+                    timeline = build();
+                    if (generation.get() == started) {
+                        current = timeline;
+                    }
+                }
+            }
+        }
+        return timeline;
+    }
+
+    private static List<LocalDate> bucketStarts(LocalDate first, LocalDate last, String bucket) {
+        // Buckets are aligned to weeks and months; the first one is clipped to the window
+        LocalDate aligned = switch (bucket) {
+            case WEEK -> first.with(DayOfWeek.MONDAY);
+            case MONTH -> first.withDayOfMonth(1);
+            default -> first;
+        };
+
+        List<LocalDate> starts = new ArrayList<>();
+        starts.add(first);
+        for (LocalDate start = next(aligned, bucket); !start.isAfter(last); start = next(start, bucket)) {
+            if (starts.size() == MAX_BUCKETS) {
+                throw new IllegalArgumentException("More than " + MAX_BUCKETS + " buckets, use a coarser bucket");
+            }
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    private static LocalDate next(LocalDate start, String bucket) {
+        return switch (bucket) {
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+            default -> start.plusDays(1);
+        };
+    }
+
+    private Map<String, Map<String, Series>> build() {
+        List<Object[]> rows = ratingRepository.findTimelineRows();
+
+        long[] days = new long[rows.size()];
+        int[] ratings = new int[rows.size()];
+        Map<String, String[]> keys = new LinkedHashMap<>();
+        for (String dimension : List.of(RatingDistributionService.ALL, RatingDistributionService.YEAR,
+                RatingDistributionService.TITLE_TYPE, RatingDistributionService.GENRE, COUNTRY)) {
+            keys.put(dimension, new String[rows.size()]);
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            days[i] = toLocalDate(row[0]).toEpochDay();
+            ratings[i] = row[1] != null ? ((Number) row[1]).intValue() : 0;
+            keys.get(RatingDistributionService.ALL)[i] = RatingDistributionService.ALL;
+            keys.get(RatingDistributionService.YEAR)[i] = row[2] != null ? row[2].toString() : null;
+            keys.get(RatingDistributionService.TITLE_TYPE)[i] = (String) row[3];
+            keys.get(RatingDistributionService.GENRE)[i] = (String) row[4];
+            keys.get(COUNTRY)[i] = (String) row[5];
+        }
+
+        Map<String, Map<String, Series>> timeline = new HashMap<>();
+        for (Map.Entry<String, String[]> dimension : keys.entrySet()) {
+            String[] dimensionKeys = dimension.getValue();
+
+            // First pass finds each key's day range so its arrays cover only that range
+            Map<String, long[]> ranges = new HashMap<>();
+            for (int i = 0; i < days.length; i++) {
+                long day = days[i];
+                long[] range = ranges.computeIfAbsent(dimensionKeys[i], k -> new long[] {day, day});
+                range[0] = Math.min(range[0], day);
+                range[1] = Math.max(range[1], day);
+            }
+
+            Map<String, Series> series = new HashMap<>();
+            ranges.forEach((key, range) -> series.put(key, new Series(range[0], range[1])));
+            for (int i = 0; i < days.length; i++) {
+                series.get(dimensionKeys[i]).add(days[i], ratings[i]);
+            }
+            series.values().forEach(Series::accumulate);
+
+            timeline.put(dimension.getKey(), series);
+        }
+
+        System.out.printf("Built rating timeline over %d rated titles%n", rows.size());
+        return timeline;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        return LocalDate.parse(value.toString());
+    }
+}
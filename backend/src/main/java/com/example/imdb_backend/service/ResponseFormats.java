@@ -0,0 +1,168 @@
+package com.example.imdb_backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The JSON, CBOR and Smile encodings offered by the list endpoints, for code
+ * that writes response bytes itself instead of going through the message
+ * converters.
+ */
+@Service
+public class ResponseFormats {
+
+    public static final String CBOR_VALUE = "application/cbor";
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType CBOR = MediaType.parseMediaType(CBOR_VALUE);
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    // Untimed runs first, so the median is taken over JIT-compiled serializers
+    private static final int BENCHMARK_WARMUP_RUNS = 20;
+    private static final int BENCHMARK_RUNS = 31;
+
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+
+    public ResponseFormats(ObjectMapper objectMapper,
+                           MappingJackson2CborHttpMessageConverter cborConverter,
+                           MappingJackson2SmileHttpMessageConverter smileConverter) {
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(CBOR, cborConverter.getObjectMapper());
+        mappers.put(SMILE, smileConverter.getObjectMapper());
+    }
+
+    /**
+     * The format to answer an Accept header with: the supported type with the
+     * highest quality, preferring JSON for wildcards and ties.
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        MediaType best = null;
+        double bestQuality = 0;
+        for (MediaType requested : MediaType.parseMediaTypes(accept)) {
+            for (MediaType format : mappers.keySet()) {
+                if (requested.includes(format) && requested.getQualityValue() > bestQuality) {
+                    best = format;
+                    bestQuality = requested.getQualityValue();
+                    break;
+                }
+            }
+        }
+        return best != null ? best : MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip, honouring q-values: an
+     * explicit {@code gzip;q=0} refuses it even when {@code *} is accepted.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzip = null;
+        Double wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality;
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    public byte[] encode(Object value, MediaType format) throws IOException {
+        return mappers.get(format).writeValueAsBytes(value);
+    }
+
+    /** Re-encodes an already serialized JSON payload in another format. */
+    public byte[] transcode(byte[] json, MediaType format) throws IOException {
+        if (format.equals(MediaType.APPLICATION_JSON)) {
+            return json;
+        }
+        JsonNode tree = mappers.get(MediaType.APPLICATION_JSON).readTree(json);
+        return mappers.get(format).writeValueAsBytes(tree);
+    }
+
+    /**
+     * Encoded and gzipped size and median serialization time of a payload in
+     * every format, timed after a warm-up.
+     */
+    public List<Map<String, Object>> benchmark(Object payload) throws IOException {
+        List<Map<String, Object>> result = new ArrayList<>();
+
+        for (Map.Entry<MediaType, ObjectMapper> entry : mappers.entrySet()) {
+            for (int run = 0; run < BENCHMARK_WARMUP_RUNS; run++) {
+                entry.getValue().writeValueAsBytes(payload);
+            }
+
+            long[] nanos = new long[BENCHMARK_RUNS];
+            byte[] encoded = null;
+            for (int run = 0; run < BENCHMARK_RUNS; run++) {
+                long start = System.nanoTime();
+                encoded = entry.getValue().writeValueAsBytes(payload);
+                nanos[run] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+
+            long start = System.nanoTime();
+            byte[] gzipped = gzip(encoded);
+            long gzipNanos = System.nanoTime() - start;
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("format", entry.getKey().toString());
+            m.put("bytes", encoded.length);
+            m.put("gzipBytes", gzipped.length);
+            m.put("serializeMicros", nanos[BENCHMARK_RUNS / 2] / 1000);
+            m.put("runs", BENCHMARK_RUNS);
+            m.put("gzipMicros", gzipNanos / 1000);
+            result.add(m);
+        }
+        return result;
+    }
+
+    public static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.imdb_backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * Keeps a top-K list of similar titles for every title in the library. Each
+ * title is described by a set of features (genres, directors, country, decade
+ * and title type) and titles are ranked by weighted Jaccard similarity of
+ * those sets.
+ *
+ * <p>Lists are built into a fresh {@link Index} and published with a volatile
+ * write, so lookups never wait for a build. Builds are serialized among
+ * themselves. Until the first build has finished, lookups fail with an
+ * IllegalStateException instead of building on the request thread.
+ */
+@Service
+public class SimilarTitlesService {
+
+    public static final int MAX_NEIGHBORS = 20;
+
+    public static final String NOT_READY = "Similar titles are still being computed, try again shortly";
+
+    // Above this share of new or changed titles a refresh does a full rebuild instead
+    private static final double REBUILD_RATIO = 0.25;
+
+    private static final Map<Character, Float> GROUP_WEIGHTS = Map.of(
+        'g', 1.0f,   // genre
+        'd', 2.0f,   // director
+        'c', 1.0f,   // country of origin
+        'y', 0.75f,  // decade
+        't', 0.5f);  // title type
+
+    private final ImdbRatingRepository ratingRepository;
+    private final Object buildLock = new Object();
+
+    private volatile Index current;
+
+    public SimilarTitlesService(ImdbRatingRepository ratingRepository) {
+        this.ratingRepository = ratingRepository;
+    }
+
+    /**
+     * A title's sorted feature ids and its current neighbors, best first.
+     * Neighbor arrays are replaced rather than modified, so a copy of a title
+     * can share them with the original.
+     */
+    private static class Title {
+        final String imdbConst;
+        final String name;
+        final int[] features;
+        final float weight;
+        int[] neighbors = new int[0];
+        float[] scores = new float[0];
+
+        Title(String imdbConst, String name, int[] features, float weight) {
+            this.imdbConst = imdbConst;
+            this.name = name;
+            this.features = features;
+            this.weight = weight;
+        }
+
+        Title copy(String newName) {
+            Title copy = new Title(imdbConst, newName, features, weight);
+            copy.neighbors = neighbors;
+            copy.scores = scores;
+            return copy;
+        }
+
+        /**
+         * Inserts a neighbor if it beats the current K-th one. Equal scores
+         * are ordered by index, so the list does not depend on offer order.
+         */
+        void offer(int neighbor, float score) {
+            if (score <= 0 || (neighbors.length == MAX_NEIGHBORS
+                    && !beats(score, neighbor, scores[MAX_NEIGHBORS - 1], neighbors[MAX_NEIGHBORS - 1]))) {
+                return;
+            }
+
+            int size = Math.min(neighbors.length + 1, MAX_NEIGHBORS);
+            int[] newNeighbors = new int[size];
+            float[] newScores = new float[size];
+
+            int from = 0;
+            int to = 0;
+            boolean inserted = false;
+            while (to < size) {
+                if (!inserted && (from >= neighbors.length || beats(score, neighbor, scores[from], neighbors[from]))) {
+                    newNeighbors[to] = neighbor;
+                    newScores[to] = score;
+                    inserted = true;
+                } else {
+                    newNeighbors[to] = neighbors[from];
+                    newScores[to] = scores[from];
+                    from++;
+                }
+                to++;
+            }
+
+            neighbors = newNeighbors;
+            scores = newScores;
+        }
+
+        void clearNeighbors() {
+            neighbors = new int[0];
+            scores = new float[0];
+        }
+
+        boolean hasNeighbor(boolean[] candidates) {
+            for (int neighbor : neighbors) {
+                if (candidates[neighbor]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean beats(float score, int neighbor, float otherScore, int otherNeighbor) {
+            return score > otherScore || (score == otherScore && neighbor < otherNeighbor);
+        }
+    }
+
+    /** Titles, their neighbor lists and the feature dictionary as of one build. */
+    private static class Index {
+        final Map<String, Integer> featureIds;
+        float[] featureWeights;
+        final List<Title> titles;
+        final Map<String, Integer> titleIndex;
+
+        Index() {
+            this(new HashMap<>(), new float[256], new ArrayList<>(), new HashMap<>());
+        }
+
+        private Index(Map<String, Integer> featureIds, float[] featureWeights, List<Title> titles,
+                      Map<String, Integer> titleIndex) {
+            this.featureIds = featureIds;
+            this.featureWeights = featureWeights;
+            this.titles = titles;
+            this.titleIndex = titleIndex;
+        }
+
+        /** A copy that can be changed without affecting lookups on this one. */
+        Index copy() {
+            List<Title> copiedTitles = new ArrayList<>(titles.size());
+            for (Title title : titles) {
+                copiedTitles.add(title.copy(title.name));
+            }
+            return new Index(new HashMap<>(featureIds), featureWeights.clone(), copiedTitles,
+                new HashMap<>(titleIndex));
+        }
+
+        int featureId(String key) {
+            return featureIds.computeIfAbsent(key, k -> {
+                int id = featureIds.size();
+                if (id == featureWeights.length) {
+                    featureWeights = Arrays.copyOf(featureWeights, id * 2);
+                }
+                featureWeights[id] = GROUP_WEIGHTS.get(k.charAt(0));
+                return id;
+            });
+        }
+
+        Title title(String imdbConst, String name, List<String> keys) {
+            int[] features = keys.stream().distinct().mapToInt(this::featureId).sorted().toArray();
+            float weight = 0;
+            for (int feature : features) {
+                weight += featureWeights[feature];
+            }
+            return new Title(imdbConst, name, features, weight);
+        }
+
+        /** Weighted Jaccard similarity: shared feature weight over the weight of the union. */
+        float similarity(Title a, Title b) {
+            float shared = 0;
+            int i = 0;
+            int j = 0;
+            int[] fa = a.features;
+            int[] fb = b.features;
+
+            while (i < fa.length && j < fb.length) {
+                if (fa[i] == fb[j]) {
+                    shared += featureWeights[fa[i]];
+                    i++;
+                    j++;
+                } else if (fa[i] < fb[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+
+            float union = a.weight + b.weight - shared;
+            return union > 0 ? shared / union : 0;
+        }
+
+        /** Recomputes a title's list against every other title. */
+        void recompute(int i) {
+            Title title = titles.get(i);
+            title.clearNeighbors();
+            for (int j = 0; j < titles.size(); j++) {
+                if (j != i) {
+                    title.offer(j, similarity(title, titles.get(j)));
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildInBackground() {
+        CompletableFuture.runAsync(this::buildIfMissing);
+    }
+
+    /**
+     * Up to {@code k} titles most similar to the given one, or {@code null} if
+     * the title is unknown. Throws IllegalStateException while the lists have
+     * not been built yet.
+     */
+    public List<Map<String, Object>> findSimilar(String imdbConst, int k) {
+        Index index = current;
+        if (index == null) {
+            throw new IllegalStateException(NOT_READY);
+        }
+
+        Integer position = index.titleIndex.get(imdbConst);
+        if (position == null) {
+            return null;
+        }
+
+        Title title = index.titles.get(position);
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, title.neighbors.length); i++) {
+            Title neighbor = index.titles.get(title.neighbors[i]);
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id", neighbor.imdbConst);
+            m.put("const", neighbor.imdbConst);
+            m.put("name", neighbor.name);
+            m.put("score", Math.round(title.scores[i] * 1000) / 1000.0);
+            result.add(m);
+        }
+        return result;
+    }
+
+    /**
+     * Builds the lists unless a build has already published them, e.g. an
+     * import that finished while this one was waiting for the lock.
+     */
+    void buildIfMissing() {
+        synchronized (buildLock) {
+            if (current == null) {
+                rebuild();
+            }
+        }
+    }
+
+    /** Recomputes every neighbor list, comparing all pairs of titles in parallel. */
+    public void rebuild() {
+        synchronized (buildLock) {
+            Index index = new Index();
+            for (Object[] row : ratingRepository.findSimilarityFeatures()) {
+                String imdbConst = (String) row[0];
+                if (!index.titleIndex.containsKey(imdbConst)) {
+                    index.titleIndex.put(imdbConst, index.titles.size());
+                    index.titles.add(index.title(imdbConst, name(row), keys(row)));
+                }
+            }
+
+            IntStream.range(0, index.titles.size()).parallel().forEach(index::recompute);
+
+            current = index;
+            System.out.printf("Built similar-title lists for %d titles%n", index.titles.size());
+        }
+    }
+
+    /**
+     * Picks up titles added or changed since the last build, e.g. by an import
+     * or by the country fill. Only those titles are compared against the
+     * library: their own lists are recomputed, other lists are offered their
+     * new scores, and lists that contained a changed title are recomputed as
+     * its score may have dropped.
+     */
+    public void refresh() {
+        synchronized (buildLock) {
+            Index old = current;
+            if (old == null) {
+                rebuild();
+                return;
+            }
+
+            Index index = old.copy();
+            int existing = index.titles.size();
+            List<Integer> dirty = new ArrayList<>();
+
+            for (Object[] row : ratingRepository.findSimilarityFeatures()) {
+                String imdbConst = (String) row[0];
+                Integer position = index.titleIndex.get(imdbConst);
+                Title title = index.title(imdbConst, name(row), keys(row));
+
+                if (position == null) {
+                    index.titleIndex.put(imdbConst, index.titles.size());
+                    dirty.add(index.titles.size());
+                    index.titles.add(title);
+                } else if (!Arrays.equals(index.titles.get(position).features, title.features)) {
+                    index.titles.set(position, title);
+                    dirty.add(position);
+                } else if (!index.titles.get(position).name.equals(title.name)) {
+                    index.titles.set(position, index.titles.get(position).copy(title.name));
+                }
+            }
+
+            if (dirty.isEmpty()) {
+                current = index;
+                return;
+            }
+            if (dirty.size() > existing * REBUILD_RATIO) {
+                rebuild();
+                return;
+            }
+
+            int n = index.titles.size();
+            boolean[] isDirty = new boolean[n];
+            dirty.forEach(i -> isDirty[i] = true);
+
+            // Lists holding a changed title may now rank it too high, so they are rebuilt from scratch
+            boolean[] recompute = isDirty.clone();
+            IntStream.range(0, existing).parallel()
+                .filter(j -> !isDirty[j] && index.titles.get(j).hasNeighbor(isDirty))
+                .forEach(j -> recompute[j] = true);
+
+            // Each title is only touched by its own task
+            int[] dirtyTitles = dirty.stream().mapToInt(Integer::intValue).toArray();
+            IntStream.range(0, n).parallel().forEach(j -> {
+                if (recompute[j]) {
+                    index.recompute(j);
+                    return;
+                }
+                Title title = index.titles.get(j);
+                for (int d : dirtyTitles) {
+                    title.offer(d, index.similarity(title, index.titles.get(d)));
+                }
+            });
+
+            current = index;
+            System.out.printf("Refreshed similar-title lists for %d new or changed titles%n", dirty.size());
+        }
+    }
+
+    private static String name(Object[] row) {
+        return row[1] + " (" + year(row) + ")";
+    }
+
+    private static Integer year(Object[] row) {
+        return row[2] != null ? ((Number) row[2]).intValue() : null;
+    }
+
+    private static List<String> keys(Object[] row) {
+        Integer year = year(row);
+        List<String> keys = new ArrayList<>();
+        for (String genre : ((String) nullToEmpty(row[4])).split(",")) {
+            addKey(keys, 'g', genre);
+        }
+        for (String director : DirectorIndexService.parseNames((String) row[5])) {
+            addKey(keys, 'd', director);
+        }
+        addKey(keys, 'c', (String) row[6]);
+        addKey(keys, 'y', year != null ? String.valueOf(year / 10 * 10) : null);
+        addKey(keys, 't', (String) row[3]);
+        return keys;
+    }
+
+    private static void addKey(List<String> keys, char group, String value) {
+        if (value != null && !value.isBlank()) {
+            keys.add(group + ":" + value.trim());
+        }
+    }
+
+    private static Object nullToEmpty(Object value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.imdb_backend.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * The imported snapshots, identified by the {@code dd.MM.yyyy} file name they
+ * were uploaded under.
+ */
+@Service
+public class SnapshotCatalog {
+
+    public static final DateTimeFormatter SNAPSHOT_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    public static final Comparator<String> CHRONOLOGICAL = Comparator.comparing(SnapshotCatalog::parse);
+
+    private final ImdbRatingRepository ratingRepository;
+
+    public SnapshotCatalog(ImdbRatingRepository ratingRepository) {
+        this.ratingRepository = ratingRepository;
+    }
+
+    /** All snapshot dates, oldest first. */
+    public List<String> snapshots() {
+        return ratingRepository.findSnapshotDates().stream()
+            .sorted(CHRONOLOGICAL)
+            .toList();
+    }
+
+    public String latest() {
+        List<String> snapshots = snapshots();
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    public static LocalDate parse(String snapshot) {
+        try {
+            return LocalDate.parse(snapshot, SNAPSHOT_FORMAT);
+        } catch (Exception e) {
+            return LocalDate.MIN;
+        }
+    }
+}
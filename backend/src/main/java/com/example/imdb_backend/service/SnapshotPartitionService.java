@@ -0,0 +1,265 @@
+package com.example.imdb_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * Keeps the per-snapshot tables LIST partitioned by {@code file_date} on MySQL,
+ * one partition per snapshot. Snapshot-scoped queries are pruned to a single
+ * partition and deleting a snapshot drops its partitions instead of deleting
+ * rows. On other databases snapshots are deleted row by row.
+ *
+ * <p>The migration is opt-in ({@code imdb.partitioning.enabled}). MySQL DDL is
+ * not transactional, so each table is migrated on its own: tables that are
+ * already partitioned are skipped, tables with a unique key the partitioning
+ * cannot include are left alone, and foreign keys dropped for the migration
+ * are put back if it fails. A table that is not partitioned keeps working with
+ * row deletes, so a failed or partial migration can simply be retried.
+ */
+@Service
+public class SnapshotPartitionService {
+
+    // imdb_contains is last so a snapshot stays listed until its other rows are gone
+    static final List<String> SNAPSHOT_TABLES = List.of("imdb_num_votes", "imdb_ratings_map", "imdb_contains");
+
+    // Placeholder so a table can be partitioned before its first snapshot is imported
+    private static final String EMPTY_PARTITION = "p_empty";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImdbRatingRepository ratingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean configured;
+
+    private volatile boolean enabled = false;
+
+    public SnapshotPartitionService(JdbcTemplate jdbcTemplate, ImdbRatingRepository ratingRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${imdb.partitioning.enabled:false}") boolean configured) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ratingRepository = ratingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.configured = configured;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Partitions the snapshot tables that are not partitioned yet. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public synchronized void partitionTables() {
+        if (!configured || !isMySql()) {
+            return;
+        }
+        enabled = true;
+
+        for (String table : SNAPSHOT_TABLES) {
+            if (!partitions(table).isEmpty()) {
+                continue;
+            }
+            try {
+                partitionTable(table);
+            } catch (RuntimeException e) {
+                System.err.printf("❌ Could not partition %s, it stays unpartitioned: %s%n", table, e.getMessage());
+            }
+        }
+    }
+
+    /** Adds the partitions for a snapshot before its rows are imported. */
+    public synchronized void ensurePartition(String fileDate) {
+        if (!enabled) {
+            return;
+        }
+
+        for (String table : SNAPSHOT_TABLES) {
+            Map<String, String> partitions = partitions(table);
+            if (!partitions.isEmpty() && !partitions.containsKey(fileDate)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ADD PARTITION ("
+                    + partitionClause(fileDate) + ")");
+            }
+        }
+    }
+
+    /**
+     * Removes every row of a snapshot from the snapshot tables. The bulk
+     * deletes share one transaction, so a failure leaves the snapshot whole.
+     * imdb_contains goes last either way: partition drops are DDL and commit
+     * on their own, and a snapshot that is still listed can be deleted again.
+     * The transaction commits before the lock is released, so an import or
+     * another delete of the same snapshot never sees it half deleted.
+     *
+     * @return the number of titles the snapshot contained
+     */
+    public synchronized int deleteSnapshot(String fileDate) {
+        return transactionTemplate.execute(status -> deleteSnapshotRows(fileDate));
+    }
+
+    private int deleteSnapshotRows(String fileDate) {
+        int titles = ratingRepository.countContainsByFileDate(fileDate);
+
+        if (!enabled) {
+            ratingRepository.deleteNumVotesByFileDate(fileDate);
+            ratingRepository.deleteImdbRatingsByFileDate(fileDate);
+            ratingRepository.deleteContainsByFileDate(fileDate);
+            return titles;
+        }
+
+        for (String table : SNAPSHOT_TABLES) {
+            Map<String, String> partitions = partitions(table);
+            if (partitions.isEmpty()) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE file_date = ?", fileDate);
+            } else if (partitions.containsKey(fileDate)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partitions.get(fileDate));
+            }
+        }
+        return titles;
+    }
+
+    private record ForeignKey(String name, List<String> columns, String referencedTable,
+                              List<String> referencedColumns, String deleteRule, String updateRule) {
+
+        String definition() {
+            return "CONSTRAINT `" + name + "` FOREIGN KEY (" + quoteNames(columns) + ") REFERENCES `"
+                + referencedTable + "` (" + quoteNames(referencedColumns) + ") ON DELETE " + deleteRule
+                + " ON UPDATE " + updateRule;
+        }
+
+        private static String quoteNames(List<String> names) {
+            return names.stream().map(name -> "`" + name + "`").collect(Collectors.joining(", "));
+        }
+    }
+
+    private void partitionTable(String table) {
+        // Every unique key of a partitioned table must include file_date; check before changing anything
+        List<String> blockingKeys = jdbcTemplate.queryForList("""
+            SELECT INDEX_NAME FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND NON_UNIQUE = 0
+            GROUP BY INDEX_NAME
+            HAVING SUM(COLUMN_NAME = 'file_date') = 0
+            """, String.class, table);
+        if (!blockingKeys.isEmpty()) {
+            throw new IllegalStateException("unique keys " + blockingKeys + " do not include file_date");
+        }
+
+        // MySQL does not allow foreign keys on partitioned tables
+        List<ForeignKey> foreignKeys = foreignKeys(table);
+        for (ForeignKey foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP FOREIGN KEY `" + foreignKey.name() + "`");
+        }
+
+        List<String> fileDates = jdbcTemplate.queryForList(
+            "SELECT DISTINCT file_date FROM " + table + " WHERE file_date IS NOT NULL", String.class);
+
+        String clauses = fileDates.isEmpty()
+            ? "PARTITION " + EMPTY_PARTITION + " VALUES IN (NULL)"
+            : fileDates.stream().map(SnapshotPartitionService::partitionClause).collect(Collectors.joining(", "));
+
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + table + " PARTITION BY LIST COLUMNS (file_date) (" + clauses + ")");
+        } catch (RuntimeException e) {
+            restoreForeignKeys(table, foreignKeys);
+            throw e;
+        }
+        System.out.printf("Partitioned %s into %d snapshot partitions%n", table, fileDates.size());
+    }
+
+    private List<ForeignKey> foreignKeys(String table) {
+        Map<String, ForeignKey> foreignKeys = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+            SELECT k.CONSTRAINT_NAME, k.COLUMN_NAME, k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME,
+                r.DELETE_RULE, r.UPDATE_RULE
+            FROM information_schema.KEY_COLUMN_USAGE k
+            JOIN information_schema.REFERENTIAL_CONSTRAINTS r
+                ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME
+            WHERE k.TABLE_SCHEMA = DATABASE() AND k.TABLE_NAME = ? AND k.REFERENCED_TABLE_NAME IS NOT NULL
+            ORDER BY k.CONSTRAINT_NAME, k.ORDINAL_POSITION
+            """, rs -> {
+                String name = rs.getString("CONSTRAINT_NAME");
+                ForeignKey foreignKey = foreignKeys.get(name);
+                if (foreignKey == null) {
+                    foreignKey = new ForeignKey(name, new ArrayList<>(), rs.getString("REFERENCED_TABLE_NAME"),
+                        new ArrayList<>(), rs.getString("DELETE_RULE"), rs.getString("UPDATE_RULE"));
+                    foreignKeys.put(name, foreignKey);
+                }
+                foreignKey.columns().add(rs.getString("COLUMN_NAME"));
+                foreignKey.referencedColumns().add(rs.getString("REFERENCED_COLUMN_NAME"));
+            }, table);
+        return new ArrayList<>(foreignKeys.values());
+    }
+
+    private void restoreForeignKeys(String table, List<ForeignKey> foreignKeys) {
+        for (ForeignKey foreignKey : foreignKeys) {
+            try {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ADD " + foreignKey.definition());
+            } catch (RuntimeException e) {
+                System.err.printf("❌ Could not restore %s on %s: %s%n", foreignKey.definition(), table, e.getMessage());
+            }
+        }
+    }
+
+    /** Snapshot value to partition name for a table, empty if it is not partitioned. */
+    private Map<String, String> partitions(String table) {
+        Map<String, String> partitions = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+            SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+            """, rs -> {
+                partitions.put(unquote(rs.getString("PARTITION_DESCRIPTION")), rs.getString("PARTITION_NAME"));
+            }, table);
+        return partitions;
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+            return "MySQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String partitionClause(String fileDate) {
+        return "PARTITION " + partitionName(fileDate) + " VALUES IN (" + quote(fileDate) + ")";
+    }
+
+    // p_01_10_2025_1a2b3c4d: readable, and the hash keeps names unique after sanitizing
+    static String partitionName(String fileDate) {
+        String sanitized = fileDate.replaceAll("[^A-Za-z0-9]", "_");
+        if (sanitized.length() > 40) {
+            sanitized = sanitized.substring(0, 40);
+        }
+        int hash = Arrays.hashCode(fileDate.getBytes(StandardCharsets.UTF_8));
+        return "p_" + sanitized + "_" + Integer.toHexString(hash);
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+
+    private static String unquote(String description) {
+        if (description != null && description.length() >= 2 && description.startsWith("'") && description.endsWith("'")) {
+            return description.substring(1, description.length() - 1).replace("''", "'").replace("\\\\", "\\");
+        }
+        return description;
+    }
+}
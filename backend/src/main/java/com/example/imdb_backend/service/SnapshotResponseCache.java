@@ -0,0 +1,146 @@
+package com.example.imdb_backend.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * LRU cache of the serialized {@code /ratings-by-date} payload per snapshot.
+ * A snapshot never changes once imported, so entries are only dropped when the
+ * snapshot is deleted or re-imported, or when the cache runs out of room.
+ */
+@Service
+public class SnapshotResponseCache {
+
+    public record CachedResponse(byte[] json, byte[] gzip, Map<MediaType, byte[]> binary) {
+
+        CachedResponse(byte[] json, byte[] gzip) {
+            this(json, gzip, new ConcurrentHashMap<>());
+        }
+    }
+
+    private final ImdbRatingRepository ratingRepository;
+    private final ObjectMapper objectMapper;
+    private final ResponseFormats responseFormats;
+    private final Map<String, CachedResponse> entries;
+
+    // Bumped by invalidate, so a build that overlaps it is not cached. Guarded by entries.
+    private final Map<String, Long> versions = new HashMap<>();
+
+    public SnapshotResponseCache(ImdbRatingRepository ratingRepository, ObjectMapper objectMapper,
+                                 ResponseFormats responseFormats,
+                                 @Value("${imdb.snapshot-cache.max-entries:8}") int maxEntries) {
+        this.ratingRepository = ratingRepository;
+        this.objectMapper = objectMapper;
+        this.responseFormats = responseFormats;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public CachedResponse get(String date) throws IOException {
+        long version;
+        synchronized (entries) {
+            CachedResponse cached = entries.get(date);
+            if (cached != null) {
+                return cached;
+            }
+            version = versions.getOrDefault(date, 0L);
+        }
+
+        CachedResponse response = build(date);
+
+        // Unknown dates are not cached so they cannot push out real snapshots
+        if (response != null) {
+            synchronized (entries) {
+                if (versions.getOrDefault(date, 0L) == version) {
+                    entries.put(date, response);
+                }
+            }
+            return response;
+        }
+        return new CachedResponse(objectMapper.writeValueAsBytes(List.of()), null);
+    }
+
+    /** The payload in a binary format, transcoded from the cached JSON on first use. */
+    public byte[] get(String date, MediaType format) throws IOException {
+        CachedResponse cached = get(date);
+        if (format.equals(MediaType.APPLICATION_JSON)) {
+            return cached.json();
+        }
+
+        byte[] encoded = cached.binary().get(format);
+        if (encoded == null) {
+            encoded = responseFormats.transcode(cached.json(), format);
+            cached.binary().put(format, encoded);
+        }
+        return encoded;
+    }
+
+    /** The rows of a snapshot as maps, for callers that serialize them themselves. */
+    public List<Map<String, Object>> rows(String date) throws IOException {
+        return objectMapper.readValue(get(date).json(),
+            objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class));
+    }
+
+    /** Rebuilds the entry for a snapshot that was just imported. */
+    public void warm(String date) {
+        invalidate(date);
+        try {
+            get(date);
+        } catch (IOException e) {
+            System.err.printf("❌ Could not warm ratings cache for %s: %s%n", date, e.getMessage());
+        }
+    }
+
+    public void invalidate(String date) {
+        synchronized (entries) {
+            entries.remove(date);
+            versions.merge(date, 1L, Long::sum);
+        }
+    }
+
+    private CachedResponse build(String date) throws IOException {
+        List<Object[]> results = ratingRepository.findRatingsByDate(date);
+        if (results.isEmpty()) {
+            return null;
+        }
+
+        List<Map<String, Object>> mapped = results.stream().map(row -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", row[0]);
+            m.put("const", row[0]);
+            m.put("title", row[1]);
+            m.put("originalTitle", row[2]);
+            m.put("url", row[3]);
+            m.put("titleType", row[4]);
+            m.put("imdbRating", row[5]);
+            m.put("runtime", row[6]);
+            m.put("year", row[7]);
+            m.put("yourRating", row[8]);
+            m.put("dateRated", row[9]);
+            m.put("genres", row[10]);
+            m.put("numVotes", row[11]);
+            m.put("releaseDate", row[12]);
+            m.put("directors", row[13]);
+            return m;
+        }).toList();
+
+        byte[] json = objectMapper.writeValueAsBytes(mapped);
+        return new CachedResponse(json, ResponseFormats.gzip(json));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.imdb_backend.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Service;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * The aggregate sections of the stats pages, shared by their own endpoints and
+ * by the combined dashboard. Sections cut off at a rated date are answered from
+ * the {@link RatingTimeline} instead of the database.
+ */
+@Service
+public class StatsService {
+
+    private final ImdbRatingRepository ratingRepository;
+    private final RatingTimeline ratingTimeline;
+
+    public StatsService(ImdbRatingRepository ratingRepository, RatingTimeline ratingTimeline) {
+        this.ratingRepository = ratingRepository;
+        this.ratingTimeline = ratingTimeline;
+    }
+
+    /** Titles per release year in one snapshot; unlike the other sections this is not a rated-date cutoff. */
+    public Map<String, Object> yearCounts(String snapshot) {
+        List<Object[]> results = ratingRepository.findYearCountsFromDate(snapshot);
+
+        Map<Integer, Long> countsMap = results.stream()
+            .collect(Collectors.toMap(
+                row -> (Integer) row[0],
+                row -> ((Number) row[1]).longValue()
+            ));
+
+        List<Map<String, Object>> mapped = IntStream.rangeClosed(1874, 2026)
+            .mapToObj(year -> {
+                Map<String, Object> m = new HashMap<>();
+                m.put("year", year);
+                m.put("itemsNum", countsMap.getOrDefault(year, 0L));
+                return m;
+            }).toList();
+
+        long totalItems = mapped.stream()
+            .mapToLong(m -> (Long) m.get("itemsNum"))
+            .sum();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("totalItems", totalItems);
+        response.put("years", mapped);
+        return response;
+    }
+
+    public List<Map<String, Object>> yearlyAverages(String cutoffDate) {
+        Map<String, RatingTimeline.Totals> results =
+            ratingTimeline.until(RatingDistributionService.YEAR, SnapshotCatalog.parse(cutoffDate));
+
+        return results.entrySet().stream()
+            .filter(entry -> entry.getKey() != null)
+            .sorted(Comparator.comparing(entry -> Integer.valueOf(entry.getKey())))
+            .map(entry -> {
+                Map<String, Object> m = new HashMap<>();
+                Integer year = Integer.valueOf(entry.getKey());
+                Long itemsNum = entry.getValue().count();
+                Double avgRating = entry.getValue().ratedCount() > 0
+                    ? (double) entry.getValue().ratingSum() / entry.getValue().ratedCount()
+                    : 0.0;
+
+                String avgRatingStr = String.format(Locale.US, "%.2f", avgRating);
+
+                m.put("id", year);
+                m.put("year", year);
+                m.put("itemsNum", itemsNum);
+                m.put("avgRating", avgRatingStr);
+                return m;
+            }).toList();
+    }
+
+    public List<Map<String, Object>> titleTypeCounts(String fromDate) {
+        Map<String, RatingTimeline.Totals> results =
+            ratingTimeline.until(RatingDistributionService.TITLE_TYPE, SnapshotCatalog.parse(fromDate));
+
+        return results.entrySet().stream()
+                .map(entry -> {
+                    Map<String, Object> m = new HashMap<>();
+                    m.put("id", entry.getKey());
+                    m.put("titleType", entry.getKey());
+                    m.put("count", entry.getValue().count());
+                    return m;
+                }).toList();
+    }
+
+    public List<Map<String, Object>> genreStats(String cutoffDate) {
+        Map<String, RatingTimeline.Totals> results =
+            ratingTimeline.until(RatingDistributionService.GENRE, SnapshotCatalog.parse(cutoffDate));
+
+        return results.entrySet().stream()
+            .sorted(Comparator.comparingLong(
+                (Map.Entry<String, RatingTimeline.Totals> entry) -> entry.getValue().count()).reversed())
+            .map(entry -> {
+                Map<String, Object> m = new HashMap<>();
+                String genre = entry.getKey();
+                Double avgRating = entry.getValue().avgRating();
+
+                m.put("id", genre);
+                m.put("genre", genre);
+                m.put("count", entry.getValue().count());
+                m.put("avgRating", avgRating != null ? avgRating : 0.0);
+                return m;
+            }).toList();
+    }
+
+    public List<Map<String, Object>> countryCounts() {
+        List<Object[]> results = ratingRepository.findMovieCountsByCountry();
+
+        return results.stream()
+            .map(row -> {
+                Map<String, Object> m = new HashMap<>();
+                m.put("country", (String) row[0]);
+                m.put("count", ((Number) row[1]).intValue());
+                return m;
+            }).toList();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.imdb_backend.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Vote and rating trajectory of a single title across every snapshot, read
+ * from the {@link VoteHistory} image. Long series are thinned out with
+ * Largest-Triangle-Three-Buckets so charts keep their shape at a bounded size.
+ */
+@Service
+public class TitleHistoryService {
+
+    public static final int MIN_POINTS = 3;
+    public static final int MAX_POINTS = 2000;
+
+    private final VoteHistoryImage voteHistoryImage;
+
+    public TitleHistoryService(VoteHistoryImage voteHistoryImage) {
+        this.voteHistoryImage = voteHistoryImage;
+    }
+
+    /**
+     * The title's snapshots in chronological order, at most {@code points} of
+     * them, or {@code null} if the title is in no snapshot.
+     */
+    public Map<String, Object> history(String imdbConst, int points) {
+        VoteHistory history = voteHistoryImage.get();
+        int title = history.titleIndex(imdbConst);
+        if (title < 0) {
+            return null;
+        }
+
+        List<String> snapshots = history.getSnapshots();
+        int[] present = new int[snapshots.size()];
+        int count = 0;
+        for (int s = 0; s < snapshots.size(); s++) {
+            if (history.votes(s, title) != VoteHistory.MISSING || history.rating(s, title) != null) {
+                present[count++] = s;
+            }
+        }
+
+        // Downsampled on votes, which carry most of the shape; ratings follow the chosen snapshots
+        double[] x = new double[count];
+        int[] voteCounts = new int[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = SnapshotCatalog.parse(snapshots.get(present[i])).toEpochDay();
+            voteCounts[i] = history.votes(present[i], title);
+        }
+        int[] selected = largestTriangleThreeBuckets(x, voteSeries(x, voteCounts), points);
+
+        List<Map<String, Object>> series = new ArrayList<>(selected.length);
+        for (int i : selected) {
+            int s = present[i];
+            int votes = history.votes(s, title);
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("date", snapshots.get(s));
+            m.put("numVotes", votes != VoteHistory.MISSING ? votes : null);
+            m.put("imdbRating", history.rating(s, title));
+            series.add(m);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("imdbConst", imdbConst);
+        response.put("snapshotCount", count);
+        response.put("downsampled", selected.length < count);
+        response.put("points", series);
+        return response;
+    }
+
+    /**
+     * Vote counts to downsample on. A snapshot with a rating but no vote count
+     * is given the value interpolated between its neighbours, or the nearest
+     * known count at either end, so it neither shows up as a drop to zero nor
+     * as a step that LTTB would keep over real changes.
+     */
+    static double[] voteSeries(double[] x, int[] votes) {
+        double[] y = new double[votes.length];
+        int previous = -1;
+        for (int i = 0; i < votes.length; i++) {
+            if (votes[i] == VoteHistory.MISSING) {
+                continue;
+            }
+            y[i] = votes[i];
+            for (int gap = previous + 1; gap < i; gap++) {
+                y[gap] = previous < 0
+                    ? votes[i]
+                    : y[previous] + (votes[i] - y[previous]) * (x[gap] - x[previous]) / (x[i] - x[previous]);
+            }
+            previous = i;
+        }
+        for (int gap = previous + 1; gap < votes.length; gap++) {
+            y[gap] = previous < 0 ? 0 : y[previous];
+        }
+        return y;
+    }
+
+    /**
+     * Indices of the points kept by LTTB: the first and last point, plus one
+     * point per bucket in between, chosen to form the largest triangle with the
+     * previously kept point and the average of the next bucket. The threshold
+     * must be at least 3.
+     */
+    static int[] largestTriangleThreeBuckets(double[] x, double[] y, int threshold) {
+        int length = x.length;
+        if (threshold >= length) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+        selected[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket, or the last point for the final bucket
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            if (bucket == threshold - 3) {
+                nextStart = length - 1;
+                nextEnd = length;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                    - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+
+        selected[threshold - 1] = length - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.imdb_backend.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view over a vote history image. Titles are sorted by
+ * {@code imdb_const} and looked up by binary search; votes and ratings are
+ * stored column-major, one column per snapshot.
+ *
+ * <pre>
+ * int    magic, version, snapshotCount (S), titleCount (T)
+ * S x    short length + UTF-8 snapshot name, oldest first
+ * int[T]   title ids
+ * int[T+1] offsets into the imdb_const bytes, followed by the bytes
+ * int[S*T] num votes, -1 when the title is not in the snapshot
+ * short[S*T] IMDb rating x 10, -1 when missing
+ * </pre>
+ */
+public class VoteHistory {
+
+    public static final int MAGIC = 0x494D4456;
+    public static final int VERSION = 1;
+
+    public static final int MISSING = -1;
+
+    private final ByteBuffer buffer;
+    private final List<String> snapshots;
+    private final int titleCount;
+    private final int idsOffset;
+    private final int constOffsetsOffset;
+    private final int constBytesOffset;
+    private final int votesOffset;
+    private final int ratingsOffset;
+
+    /**
+     * Parses the header; throws IllegalStateException if the image is not of
+     * the current version or its length does not match the header, as with a
+     * truncated or partially written file.
+     */
+    public VoteHistory(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        try {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("Unsupported vote history image");
+            }
+
+            int snapshotCount = buffer.getInt(8);
+            this.titleCount = buffer.getInt(12);
+
+            List<String> names = new ArrayList<>(snapshotCount);
+            int position = 16;
+            for (int i = 0; i < snapshotCount; i++) {
+                int length = buffer.getShort(position);
+                byte[] bytes = new byte[length];
+                buffer.get(position + 2, bytes);
+                names.add(new String(bytes, StandardCharsets.UTF_8));
+                position += 2 + length;
+            }
+            this.snapshots = Collections.unmodifiableList(names);
+
+            this.idsOffset = position;
+            this.constOffsetsOffset = idsOffset + 4 * titleCount;
+            this.constBytesOffset = constOffsetsOffset + 4 * (titleCount + 1);
+            this.votesOffset = constBytesOffset + buffer.getInt(constOffsetsOffset + 4 * titleCount);
+            this.ratingsOffset = votesOffset + 4 * snapshotCount * titleCount;
+
+            long expectedLength = ratingsOffset + 2L * snapshotCount * titleCount;
+            if (snapshotCount < 0 || titleCount < 0 || buffer.limit() != expectedLength) {
+                throw new IllegalStateException("Vote history image is " + buffer.limit()
+                    + " bytes but its header describes " + expectedLength);
+            }
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalStateException("Truncated vote history image", e);
+        }
+    }
+
+    public List<String> getSnapshots() {
+        return snapshots;
+    }
+
+    public int getTitleCount() {
+        return titleCount;
+    }
+
+    public int snapshotIndex(String snapshot) {
+        return snapshots.indexOf(snapshot);
+    }
+
+    /** Index of the title with the given imdb_const, or -1 if it is not in the image. */
+    public int titleIndex(String imdbConst) {
+        byte[] key = imdbConst.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = titleCount - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareConst(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public int titleId(int title) {
+        return buffer.getInt(idsOffset + 4 * title);
+    }
+
+    public String imdbConst(int title) {
+        int start = buffer.getInt(constOffsetsOffset + 4 * title);
+        int end = buffer.getInt(constOffsetsOffset + 4 * (title + 1));
+        byte[] bytes = new byte[end - start];
+        buffer.get(constBytesOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int votes(int snapshot, int title) {
+        return buffer.getInt(votesOffset + 4 * (snapshot * titleCount + title));
+    }
+
+    /** IMDb rating of a title in a snapshot, or {@code null} when missing. */
+    public Double rating(int snapshot, int title) {
+        int value = ratingTenths(snapshot, title);
+        return value == MISSING ? null : value / 10.0;
+    }
+
+    /** IMDb rating x 10 as stored, or {@link #MISSING}. */
+    public int ratingTenths(int snapshot, int title) {
+        return buffer.getShort(ratingsOffset + 2 * (snapshot * titleCount + title));
+    }
+
+    private int compareConst(int title, byte[] key) {
+        int start = buffer.getInt(constOffsetsOffset + 4 * title);
+        int end = buffer.getInt(constOffsetsOffset + 4 * (title + 1));
+        int length = end - start;
+
+        for (int i = 0; i < length && i < key.length; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(constBytesOffset + start + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+}
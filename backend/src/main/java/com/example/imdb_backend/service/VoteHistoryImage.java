@@ -0,0 +1,289 @@
+package com.example.imdb_backend.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * Keeps the per-snapshot votes and IMDb ratings of every title in a binary
+ * image on disk. The image is rewritten after each import or delete and
+ * memory-mapped on startup, so the history is available without walking
+ * imdb_num_votes and imdb_ratings_map again.
+ */
+@Service
+public class VoteHistoryImage {
+
+    private final ImdbRatingRepository ratingRepository;
+    private final SnapshotCatalog snapshotCatalog;
+    private final Path path;
+
+    private volatile VoteHistory current;
+
+    public VoteHistoryImage(ImdbRatingRepository ratingRepository, SnapshotCatalog snapshotCatalog,
+                            @Value("${imdb.vote-image.path:data/vote-history.bin}") String path) {
+        this.ratingRepository = ratingRepository;
+        this.snapshotCatalog = snapshotCatalog;
+        this.path = Path.of(path);
+    }
+
+    /** The current history, loading or rebuilding it on first use. */
+    public VoteHistory get() {
+        VoteHistory history = current;
+        if (history == null) {
+            synchronized (this) {
+                if (current == null) {
+                    load();
+                }
+                history = current;
+            }
+        }
+        if (history == null) {
+            throw new IllegalStateException("Vote history is not available");
+        }
+        return history;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        List<String> catalog = snapshotCatalog.snapshots();
+
+        Path latest = latestImage();
+        if (latest != null) {
+            try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.READ)) {
+                VoteHistory mapped = new VoteHistory(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                // Same snapshot names are not enough: a snapshot re-imported with other titles keeps its name
+                if (mapped.getSnapshots().equals(catalog)
+                        && mapped.getTitleCount() == ratingRepository.countVoteHistoryTitles()) {
+                    current = mapped;
+                    System.out.printf("Mapped vote history image with %d titles and %d snapshots%n",
+                        mapped.getTitleCount(), catalog.size());
+                    deleteOlderImages(latest);
+                    return;
+                }
+                System.out.println("Vote history image does not match the snapshot catalog, rebuilding...");
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Vote history image is unreadable, rebuilding: " + e.getMessage());
+            }
+        }
+
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the image from the database and swaps it in. Every image is
+     * written under a new generation name, so the file currently mapped is
+     * never replaced in place, which Windows does not allow.
+     *
+     * <p>Failures are logged rather than thrown: callers rebuild after their
+     * rows are committed, and the previous history keeps being served until
+     * a later rebuild, or the next start, succeeds.
+     */
+    public synchronized void rebuild() {
+        ByteBuffer image;
+        try {
+            image = build(snapshotCatalog.snapshots());
+        } catch (RuntimeException e) {
+            System.err.printf("❌ Could not rebuild vote history, keeping the previous one: %s%n", e.getMessage());
+            return;
+        }
+
+        Path tmp = null;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path target = imagePath(generation(latestImage()) + 1);
+
+            tmp = Files.createTempFile(parent, "vote-history", ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.write(image.duplicate());
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+                current = new VoteHistory(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+            deleteOlderImages(target);
+        } catch (IOException | RuntimeException e) {
+            // Still usable from the heap; the next start will rebuild again
+            System.err.printf("❌ Could not write vote history image to %s: %s%n", path, e.getMessage());
+            try {
+                current = new VoteHistory(image);
+            } catch (RuntimeException invalid) {
+                System.err.printf("❌ Rebuilt vote history is invalid, keeping the previous one: %s%n",
+                    invalid.getMessage());
+            }
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    System.err.printf("❌ Could not delete %s: %s%n", tmp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // data/vote-history.bin is written as data/vote-history.bin.1, .2, ...
+    private Path imagePath(long generation) {
+        return path.resolveSibling(path.getFileName() + "." + generation);
+    }
+
+    private long generation(Path image) {
+        if (image == null) {
+            return 0;
+        }
+        String name = image.getFileName().toString();
+        return Long.parseLong(name.substring(path.getFileName().toString().length() + 1));
+    }
+
+    private List<Path> images() {
+        Path parent = path.toAbsolutePath().getParent();
+        if (!Files.isDirectory(parent)) {
+            return List.of();
+        }
+
+        String prefix = path.getFileName() + ".";
+        try (Stream<Path> files = Files.list(parent)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(prefix) && name.length() > prefix.length()
+                        && name.substring(prefix.length()).chars().allMatch(Character::isDigit);
+                })
+                .map(file -> path.resolveSibling(file.getFileName()))
+                .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private Path latestImage() {
+        return images().stream().max(Comparator.comparingLong(this::generation)).orElse(null);
+    }
+
+    /**
+     * Removes earlier generations and the pre-generation image. A file that
+     * is still mapped cannot be deleted on Windows until it is unmapped by
+     * the garbage collector, so failures are left for the next rebuild.
+     */
+    private void deleteOlderImages(Path keep) {
+        List<Path> older = new ArrayList<>(images());
+        older.add(path);
+        for (Path image : older) {
+            if (image.equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(image);
+            } catch (IOException e) {
+                System.out.printf("Could not delete old vote history image %s yet: %s%n", image, e.getMessage());
+            }
+        }
+    }
+
+    private ByteBuffer build(List<String> snapshots) {
+        Map<String, Integer> snapshotIndex = new HashMap<>();
+        for (int i = 0; i < snapshots.size(); i++) {
+            snapshotIndex.put(snapshots.get(i), i);
+        }
+
+        // imdb_const -> [title id, votes..., ratings...] while reading the rows
+        TreeMap<String, int[]> titles = new TreeMap<>(VoteHistoryImage::compareBytes);
+        int s = snapshots.size();
+
+        for (Object[] row : ratingRepository.findVoteHistoryRows()) {
+            Integer snapshot = snapshotIndex.get((String) row[2]);
+            if (snapshot == null) {
+                continue;
+            }
+
+            int[] values = titles.computeIfAbsent((String) row[1], k -> {
+                int[] v = new int[1 + 2 * s];
+                Arrays.fill(v, VoteHistory.MISSING);
+                v[0] = ((Number) row[0]).intValue();
+                return v;
+            });
+            values[1 + snapshot] = row[3] != null ? ((Number) row[3]).intValue() : VoteHistory.MISSING;
+            values[1 + s + snapshot] = row[4] != null
+                ? (int) Math.round(((Number) row[4]).doubleValue() * 10)
+                : VoteHistory.MISSING;
+        }
+
+        int t = titles.size();
+        List<byte[]> names = new ArrayList<>(s);
+        int size = 16;
+        for (String snapshot : snapshots) {
+            byte[] bytes = snapshot.getBytes(StandardCharsets.UTF_8);
+            names.add(bytes);
+            size += 2 + bytes.length;
+        }
+
+        List<byte[]> consts = new ArrayList<>(t);
+        int constBytes = 0;
+        for (String imdbConst : titles.keySet()) {
+            byte[] bytes = imdbConst.getBytes(StandardCharsets.UTF_8);
+            consts.add(bytes);
+            constBytes += bytes.length;
+        }
+        size += 4 * t + 4 * (t + 1) + constBytes + 4 * s * t + 2 * s * t;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(VoteHistory.MAGIC).putInt(VoteHistory.VERSION).putInt(s).putInt(t);
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length).put(name);
+        }
+
+        List<int[]> rows = new ArrayList<>(titles.values());
+        for (int[] values : rows) {
+            buffer.putInt(values[0]);
+        }
+
+        int offset = 0;
+        buffer.putInt(offset);
+        for (byte[] bytes : consts) {
+            offset += bytes.length;
+            buffer.putInt(offset);
+        }
+        for (byte[] bytes : consts) {
+            buffer.put(bytes);
+        }
+
+        for (int snapshot = 0; snapshot < s; snapshot++) {
+            for (int[] values : rows) {
+                buffer.putInt(values[1 + snapshot]);
+            }
+        }
+        for (int snapshot = 0; snapshot < s; snapshot++) {
+            for (int[] values : rows) {
+                buffer.putShort((short) values[1 + s + snapshot]);
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int compareBytes(String a, String b) {
+        return Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.imdb_backend.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streaming reader for Wikidata JSON dumps, either the full array format or
+ * one entity per line. Only the id, English label and the P31, P495 and P577
+ * claims of each entity are materialized; everything else is skipped token by
+ * token, so memory use does not grow with the size of the dump.
+ */
+public class WikidataDumpParser {
+
+    // instance of: film, short film, animated film, television film, television series, documentary film
+    static final Set<String> FILM_TYPES = Set.of("Q11424", "Q24862", "Q202866", "Q506240", "Q5398426", "Q93204");
+
+    // instance of: country, sovereign state, historical country
+    static final Set<String> COUNTRY_TYPES = Set.of("Q6256", "Q3624078", "Q3024240");
+
+    public record FilmEntry(String qid, String title, int year, String countryQid) {
+    }
+
+    public record CountryEntry(String qid, String label) {
+    }
+
+    public interface Listener {
+        void film(FilmEntry film) throws IOException;
+
+        void country(CountryEntry country) throws IOException;
+
+        /** Called after each entity with the number of entities read so far; return false to stop. */
+        default boolean progress(long entitiesRead) throws IOException {
+            return true;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Opens a dump file, decompressing {@code .gz} and {@code .bz2} by extension. */
+    public static InputStream open(Path path) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+        String name = path.getFileName().toString();
+        if (name.endsWith(".gz")) {
+            return new GZIPInputStream(in, 1 << 16);
+        }
+        if (name.endsWith(".bz2")) {
+            return new BZip2CompressorInputStream(in, true);
+        }
+        return in;
+    }
+
+    /**
+     * Reads every entity of the dump, skipping the first {@code skip} ones.
+     *
+     * @return the number of entities read, including the skipped ones
+     */
+    public long parse(InputStream in, long skip, Listener listener) throws IOException {
+        long read = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token == JsonToken.START_OBJECT) {
+                if (read < skip) {
+                    parser.skipChildren();
+                } else {
+                    readEntity(parser, listener);
+                }
+                read++;
+
+                if (read > skip && !listener.progress(read)) {
+                    break;
+                }
+                token = parser.nextToken();
+            }
+        }
+        return read;
+    }
+
+    private void readEntity(JsonParser parser, Listener listener) throws IOException {
+        String id = null;
+        String label = null;
+        List<String> instanceOf = List.of();
+        List<String> countries = List.of();
+        Integer year = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "id" -> id = parser.getText();
+                case "labels" -> label = readEnglishLabel(parser);
+                case "claims" -> {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String property = parser.currentName();
+                        parser.nextToken();
+
+                        switch (property) {
+                            case "P31" -> instanceOf = claimValues(parser.readValueAsTree(), "id");
+                            case "P495" -> countries = claimValues(parser.readValueAsTree(), "id");
+                            case "P577" -> year = earliestYear(claimValues(parser.readValueAsTree(), "time"));
+                            default -> parser.skipChildren();
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (id == null || label == null) {
+            return;
+        }
+
+        if (instanceOf.stream().anyMatch(FILM_TYPES::contains) && year != null && !countries.isEmpty()) {
+            listener.film(new FilmEntry(id, label, year, countries.get(0)));
+        } else if (instanceOf.stream().anyMatch(COUNTRY_TYPES::contains)) {
+            listener.country(new CountryEntry(id, label));
+        }
+    }
+
+    private static String readEnglishLabel(JsonParser parser) throws IOException {
+        String label = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String language = parser.currentName();
+            parser.nextToken();
+
+            if (language.equals("en")) {
+                JsonNode node = parser.readValueAsTree();
+                label = node.path("value").asText(null);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return label;
+    }
+
+    private static List<String> claimValues(JsonNode statements, String field) {
+        List<String> values = new ArrayList<>();
+        for (JsonNode statement : statements) {
+            JsonNode value = statement.path("mainsnak").path("datavalue").path("value").path(field);
+            if (value.isTextual()) {
+                values.add(value.asText());
+            }
+        }
+        return values;
+    }
+
+    // Wikidata times look like +1999-03-31T00:00:00Z
+    private static Integer earliestYear(List<String> times) {
+        Integer earliest = null;
+        for (String time : times) {
+            int dash = time.indexOf('-', 1);
+            if (dash < 0) {
+                continue;
+            }
+            try {
+                int year = Integer.parseInt(time.substring(time.startsWith("+") ? 1 : 0, dash));
+                if (earliest == null || year < earliest) {
+                    earliest = year;
+                }
+            } catch (NumberFormatException e) {
+                // Skip malformed dates
+            }
+        }
+        return earliest;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.imdb_backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.imdb_backend.model.WikidataCountry;
+import com.example.imdb_backend.model.WikidataTitle;
+import com.example.imdb_backend.repository.WikidataCountryRepository;
+import com.example.imdb_backend.repository.WikidataTitleRepository;
+
+/**
+ * Builds a local title + year to country index from a Wikidata dump and
+ * resolves countries against it without network calls. The import runs as a
+ * background job whose parameter is the name of a dump file in the configured
+ * dump directory ({@code imdb.wikidata.dump-dir}); other paths are rejected.
+ */
+@Service
+public class WikidataDumpService implements JobHandler {
+
+    public static final String JOB_TYPE = "import-wikidata-dump";
+
+    static final int BATCH_SIZE = 1000;
+
+    static final String INVALID_DUMP_NAME = "Expected the name of a file in the Wikidata dump directory";
+
+    private final WikidataTitleRepository titleRepository;
+    private final WikidataCountryRepository countryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path dumpDir;
+    private final WikidataDumpParser parser = new WikidataDumpParser();
+
+    public WikidataDumpService(WikidataTitleRepository titleRepository, WikidataCountryRepository countryRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${imdb.wikidata.dump-dir:data/wikidata}") String dumpDir) {
+        this.titleRepository = titleRepository;
+        this.countryRepository = countryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dumpDir = Path.of(dumpDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String getJobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public void run(JobContext context) throws IOException {
+        Path path = resolveDump(context.getParameter());
+        if (!Files.isReadable(path)) {
+            throw new IOException("Cannot read Wikidata dump " + path);
+        }
+
+        int skip = context.getCheckpoint();
+        if (skip == 0) {
+            titleRepository.deleteAllTitles();
+        }
+
+        List<WikidataTitle> titles = new ArrayList<>(BATCH_SIZE);
+        List<WikidataCountry> countries = new ArrayList<>();
+
+        WikidataDumpParser.Listener listener = new WikidataDumpParser.Listener() {
+            @Override
+            public void film(WikidataDumpParser.FilmEntry film) {
+                WikidataTitle title = new WikidataTitle();
+                title.setQid(film.qid());
+                title.setTitleKey(normalize(film.title()));
+                title.setYear(film.year());
+                title.setCountryQid(film.countryQid());
+                titles.add(title);
+            }
+
+            @Override
+            public void country(WikidataDumpParser.CountryEntry country) {
+                WikidataCountry entry = new WikidataCountry();
+                entry.setQid(country.qid());
+                entry.setLabel(country.label());
+                countries.add(entry);
+            }
+
+            @Override
+            public boolean progress(long entitiesRead) {
+                if (titles.size() >= BATCH_SIZE) {
+                    saveBatch(context, titles, countries, entitiesRead);
+                }
+                return !context.isStopRequested();
+            }
+        };
+
+        long read;
+        try (InputStream in = WikidataDumpParser.open(path)) {
+            read = parser.parse(in, skip, listener);
+        }
+
+        saveBatch(context, titles, countries, read);
+        System.out.printf("Read %d entities from Wikidata dump %s%n", read, path);
+    }
+
+    /**
+     * The dump file with the given name inside the dump directory.
+     *
+     * @throws IllegalArgumentException if the name is not a plain file name
+     *     or resolves to a file outside the dump directory
+     */
+    public Path resolveDump(String fileName) {
+        if (fileName == null || fileName.isBlank() || fileName.contains("/") || fileName.contains("\\")) {
+            throw new IllegalArgumentException(INVALID_DUMP_NAME);
+        }
+
+        Path path = dumpDir.resolve(fileName).normalize();
+        if (!dumpDir.equals(path.getParent())) {
+            throw new IllegalArgumentException(INVALID_DUMP_NAME);
+        }
+
+        // A symbolic link in the directory must not lead out of it either
+        try {
+            if (Files.exists(path) && !path.toRealPath().startsWith(dumpDir.toRealPath())) {
+                throw new IllegalArgumentException(INVALID_DUMP_NAME);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(INVALID_DUMP_NAME);
+        }
+        return path;
+    }
+
+    /** Country of a title according to the local dump index, trying the exact year only. */
+    public Optional<String> findCountry(String title, Integer year) {
+        if (title == null || year == null) {
+            return Optional.empty();
+        }
+        return titleRepository.findCountryLabels(normalize(title), year).stream().findFirst();
+    }
+
+    static String normalize(String title) {
+        return title.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Saves a batch and its checkpoint in one transaction. Titles have
+     * generated ids, so a batch that was saved without its checkpoint would be
+     * inserted a second time when the job resumes.
+     */
+    private void saveBatch(JobContext context, List<WikidataTitle> titles, List<WikidataCountry> countries,
+                           long entitiesRead) {
+        int saved = titles.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            titleRepository.saveAll(titles);
+            countryRepository.saveAll(countries);
+            context.checkpointBatch((int) Math.min(entitiesRead, Integer.MAX_VALUE), saved);
+        });
+        titles.clear();
+        countries.clear();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.imdb_backend;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * MySQL functions used by native queries, registered as H2 aliases for tests
+ * that run against an in-memory database.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    /** Supports the {@code %d.%m.%Y} format used by the repository. */
+    public static Date strToDate(String value, String format) {
+        if (value == null) {
+            return null;
+        }
+        String pattern = format.replace("%d", "dd").replace("%m", "MM").replace("%Y", "yyyy");
+        return Date.valueOf(LocalDate.parse(value, DateTimeFormatter.ofPattern(pattern)));
+    }
+
+    public static String substringIndex(String value, String delimiter, int count) {
+        if (value == null) {
+            return null;
+        }
+        int index = -1;
+        for (int i = 0; i < count; i++) {
+            index = value.indexOf(delimiter, index + 1);
+            if (index < 0) {
+                return value;
+            }
+        }
+        return value.substring(0, index);
+    }
+}
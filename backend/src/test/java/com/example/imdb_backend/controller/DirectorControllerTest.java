@@ -0,0 +1,120 @@
+package com.example.imdb_backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.imdb_backend.model.ImdbRating;
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+import com.example.imdb_backend.service.DirectorIndexService;
+
+/**
+ * Indexes titles saved without director links through the startup backfill and
+ * checks the per-director endpoints against them.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imdb_directors;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+    "imdb.vote-image.path=target/directors/vote-history.bin"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DirectorControllerTest {
+
+    private static final String SNAPSHOT = "01.01.2025";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ImdbRatingRepository ratingRepository;
+
+    @Autowired
+    private DirectorIndexService directorIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        rating("tt0000001", "Elite Squad", 2007, 9, "José Padilha", 1000);
+        rating("tt0000002", "Bus 174", 2002, 7, "José Padilha, Felipe Lacerda", 200);
+        rating("tt0000003", "Other Film", 2010, 5, "Jose Padilha", 50);
+        rating("tt0000004", "No Director", 2015, 6, "", 10);
+
+        directorIndexService.backfill();
+    }
+
+    @Test
+    void backfillLinksEveryNamedDirectorOnce() {
+        // Names that differ only by an accent stay separate directors
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM directors", Integer.class));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM title_directors", Integer.class));
+
+        directorIndexService.backfill();
+
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM title_directors", Integer.class));
+    }
+
+    @Test
+    void statsAggregatePerDirector() throws Exception {
+        mockMvc.perform(get("/api/imdb-ratings/directors/stats").param("date", SNAPSHOT))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].director").value("José Padilha"))
+            .andExpect(jsonPath("$[0].count").value(2))
+            .andExpect(jsonPath("$[0].avgRating").value("8.00"))
+            .andExpect(jsonPath("$[0].totalVotes").value(1200))
+            .andExpect(jsonPath("$[1].director").value("Felipe Lacerda"))
+            .andExpect(jsonPath("$[2].director").value("Jose Padilha"))
+            .andExpect(jsonPath("$[2].totalVotes").value(50));
+
+        mockMvc.perform(get("/api/imdb-ratings/directors/stats").param("date", SNAPSHOT).param("minTitles", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void titlesAreListedByYear() throws Exception {
+        mockMvc.perform(get("/api/imdb-ratings/directors/{name}/titles", "José Padilha"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].const").value("tt0000002"))
+            .andExpect(jsonPath("$[1].const").value("tt0000001"));
+
+        mockMvc.perform(get("/api/imdb-ratings/directors/{name}/titles", "Jose Padilha"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].const").value("tt0000003"));
+
+        mockMvc.perform(get("/api/imdb-ratings/directors/{name}/titles", "Nobody"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private void rating(String imdbConst, String title, int year, int yourRating, String directors, int votes) {
+        ImdbRating rating = new ImdbRating();
+        rating.setImdbConst(imdbConst);
+        rating.setTitle(title);
+        rating.setYear(year);
+        rating.setYourRating(yourRating);
+        rating.setDateRated(LocalDate.of(2024, 1, 1));
+        rating.setDirectors(directors);
+        rating.getContains().add(SNAPSHOT);
+        rating.getNumVotes().put(SNAPSHOT, votes);
+        ratingRepository.save(rating);
+    }
+}
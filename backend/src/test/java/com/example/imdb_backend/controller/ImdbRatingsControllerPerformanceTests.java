@@ -0,0 +1,356 @@
+package com.example.imdb_backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import com.example.imdb_backend.model.BackgroundJob;
+import com.example.imdb_backend.service.CountryFillService;
+import com.example.imdb_backend.service.JobScheduler;
+import com.example.imdb_backend.service.ResponseFormats;
+import com.example.imdb_backend.service.WikidataService;
+
+/**
+ * Seeds a generated library into an in-memory database and checks that every
+ * endpoint of {@link ImdbRatingsController} stays within a budget of SQL
+ * statements, entity and collection loads and bytes allocated on the request
+ * thread. The budgets do not grow with the number of titles, except for the
+ * upload which is bounded per imported row, so an N+1 pattern fails the build.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ImdbRatingsControllerPerformanceTests {
+
+    private static final int TITLES = 400;
+    private static final List<String> SNAPSHOTS = List.of("01.01.2025", "01.02.2025", "01.03.2025");
+    private static final String NEW_SNAPSHOT = "01.04.2025";
+    private static final String[] GENRES = {"Drama", "Comedy, Drama", "Action, Thriller", "Documentary", "Horror"};
+    private static final String[] TYPES = {"Movie", "TV Series", "Short", "TV Movie"};
+
+    private static final long KB = 1024;
+    private static final long MB = 1024 * KB;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JobScheduler jobScheduler;
+
+    @MockitoBean
+    private WikidataService wikidataService;
+
+    @MockitoSpyBean
+    private CountryFillService countryFillService;
+
+    private Statistics statistics;
+
+    private record Measurement(long statements, long entityLoads, long collectionLoads, long bytes) {
+    }
+
+    @BeforeAll
+    void seed() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        when(wikidataService.getCountryFromWeb(any(), anyInt())).thenReturn(Optional.empty());
+
+        for (int s = 0; s < SNAPSHOTS.size(); s++) {
+            mockMvc.perform(multipart("/api/imdb-ratings/upload").file(csv(SNAPSHOTS.get(s), s)))
+                .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    @Order(1)
+    void postExample() throws Exception {
+        assertBudget(measure(post("/api/imdb-ratings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"test\"}"), status().isOk()),
+            0, 0, 0, 2 * MB);
+    }
+
+    @Test
+    @Order(2)
+    void fileNames() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/file-names"), status().isOk()), 2, 0, 0, 2 * MB);
+    }
+
+    @Test
+    @Order(3)
+    void compare() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/compare")
+                .param("from", SNAPSHOTS.get(0))
+                .param("to", SNAPSHOTS.get(2)), status().isOk()),
+            2, 0, 0, 8 * MB);
+        assertBudget(measure(get("/api/imdb-ratings/compare")
+                .param("from", SNAPSHOTS.get(0))
+                .param("to", SNAPSHOTS.get(2))
+                .param("search", "drama"), status().isOk()),
+            2, 0, 0, 8 * MB);
+    }
+
+    @Test
+    @Order(4)
+    void compareMatrix() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/compare-matrix")
+                .param("dates", String.join(",", SNAPSHOTS))
+                .param("allPairs", "true"), status().isOk()),
+            4, 0, 0, 8 * MB);
+    }
+
+    @Test
+    @Order(5)
+    void yearCount() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/year-count").param("fromDate", SNAPSHOTS.get(1)),
+            status().isOk()), 2, 0, 0, 4 * MB);
+    }
+
+    @Test
+    @Order(6)
+    void yearlyAverage() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/yearly-average").param("cutoffDate", "31.12.2025"),
+            status().isOk()), 2, 0, 0, 4 * MB);
+    }
+
+    @Test
+    @Order(7)
+    void titleTypeCount() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/title-type-count").param("fromDate", "31.12.2025"),
+            status().isOk()), 2, 0, 0, 2 * MB);
+    }
+
+    @Test
+    @Order(8)
+    void genreStats() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/genre-stats").param("cutoffDate", "31.12.2025"),
+            status().isOk()), 2, 0, 0, 2 * MB);
+    }
+
+    @Test
+    @Order(9)
+    void ratingsByDate() throws Exception {
+        // Served from the response cache warmed by the import
+        assertBudget(measure(get("/api/imdb-ratings/ratings-by-date").param("date", SNAPSHOTS.get(2)),
+            status().isOk()), 0, 0, 0, 4 * MB);
+        assertBudget(measure(get("/api/imdb-ratings/ratings-by-date").param("date", "31.12.2030"),
+            status().isOk()), 2, 0, 0, 2 * MB);
+    }
+
+    @Test
+    @Order(9)
+    void ratingsByDateInBinaryFormats() throws Exception {
+        // Transcoded from the cached JSON once, then served from the cache
+        for (MediaType format : List.of(ResponseFormats.CBOR, ResponseFormats.SMILE)) {
+            assertBudget(measure(get("/api/imdb-ratings/ratings-by-date").param("date", SNAPSHOTS.get(2))
+                .accept(format), status().isOk()), 0, 0, 0, 4 * MB);
+            assertBudget(measure(get("/api/imdb-ratings/ratings-by-date").param("date", SNAPSHOTS.get(2))
+                .accept(format), status().isOk()), 0, 0, 0, MB);
+        }
+    }
+
+    @Test
+    @Order(9)
+    void formatBenchmark() throws Exception {
+        // 51 warm-up and timed encodings per format, measured at about 35 MB for this library
+        assertBudget(measure(get("/api/imdb-ratings/format-benchmark").param("date", SNAPSHOTS.get(2)),
+            status().isOk()), 0, 0, 0, 44 * MB);
+    }
+
+    @Test
+    @Order(10)
+    void ratingDistribution() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/rating-distribution").param("dimension", "genre"),
+            status().isOk()), 3, 16, 0, 4 * MB);
+    }
+
+    @Test
+    @Order(11)
+    void countryCounts() throws Exception {
+        assertBudget(measure(get("/api/imdb-ratings/country-counts"), status().isOk()), 2, 0, 0, 2 * MB);
+    }
+
+    @Test
+    @Order(12)
+    void dashboard() throws Exception {
+        // The sections run on the dashboard executor, so only the combined payload is allocated here
+        assertBudget(measure(get("/api/imdb-ratings/dashboard").param("cutoffDate", "31.12.2025")
+            .param("snapshot", SNAPSHOTS.get(1)), status().isOk()), 10, 0, 0, 4 * MB);
+        assertBudget(measure(get("/api/imdb-ratings/dashboard").param("snapshot", "31.12.2030"),
+            status().isBadRequest()), 2, 0, 0, 2 * MB);
+    }
+
+    @Test
+    @Order(13)
+    void activity() throws Exception {
+        // Answered from the rating timeline built by the import
+        assertBudget(measure(get("/api/imdb-ratings/activity").param("bucket", "week").param("dimension", "genre"),
+            status().isOk()), 0, 0, 0, 4 * MB);
+    }
+
+    @Test
+    @Order(14)
+    void fillAndStopFillingCountries() throws Exception {
+        // Statistics are global, so the job is held back until both requests have been measured
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(countryFillService).run(any());
+
+        try {
+            assertBudget(measure(post("/api/imdb-ratings/fill-missing-countries"), status().isAccepted()),
+                12, 6, 6, 2 * MB);
+            assertBudget(measure(post("/api/imdb-ratings/stop-filling-missing-countries"), status().isOk()),
+                12, 6, 6, 2 * MB);
+        } finally {
+            release.countDown();
+        }
+        awaitJobs(CountryFillService.JOB_TYPE);
+    }
+
+    @Test
+    @Order(15)
+    void importWikidataDump() throws Exception {
+        assertBudget(measure(post("/api/imdb-ratings/import-wikidata-dump").param("file", "missing-dump.json"),
+            status().isAccepted()), 12, 2, 2, 2 * MB);
+        awaitJobs("import-wikidata-dump");
+    }
+
+    @Test
+    @Order(16)
+    void upload() throws Exception {
+        Measurement m = measure(multipart("/api/imdb-ratings/upload").file(csv(NEW_SNAPSHOT, SNAPSHOTS.size())),
+            status().isOk());
+
+        // Measured at 305-325 KB per row when run alone and 400-435 KB in the full suite, where the other
+        // contexts leave the JIT with less inlining; most of it is the embedded database and the entity saves
+        assertBudget(m, 12L * TITLES, 2L * TITLES, 4L * TITLES, 480 * KB * TITLES);
+    }
+
+    @Test
+    @Order(17)
+    void deleteByFile() throws Exception {
+        assertBudget(measure(delete("/api/imdb-ratings/delete-by-file/{fileName}", NEW_SNAPSHOT), status().isOk()),
+            16, 0, 0, 16 * MB);
+    }
+
+    private Measurement measure(MockHttpServletRequestBuilder request, ResultMatcher expectedStatus) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        statistics.clear();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        mockMvc.perform(request).andExpect(expectedStatus);
+
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement(
+            statistics.getPrepareStatementCount(),
+            statistics.getEntityLoadCount(),
+            statistics.getCollectionLoadCount(),
+            allocated);
+    }
+
+    private static void assertBudget(Measurement m, long maxStatements, long maxEntityLoads,
+                                     long maxCollectionLoads, long maxBytes) {
+        System.out.printf(Locale.US, "statements=%d entityLoads=%d collectionLoads=%d allocated=%.1f MB%n",
+            m.statements(), m.entityLoads(), m.collectionLoads(), m.bytes() / (double) MB);
+
+        assertTrue(m.statements() <= maxStatements,
+            "Expected at most " + maxStatements + " SQL statements but ran " + m.statements());
+        assertTrue(m.entityLoads() <= maxEntityLoads,
+            "Expected at most " + maxEntityLoads + " entity loads but had " + m.entityLoads());
+        assertTrue(m.collectionLoads() <= maxCollectionLoads,
+            "Expected at most " + maxCollectionLoads + " collection loads but had " + m.collectionLoads());
+        assertTrue(m.bytes() <= maxBytes,
+            "Expected at most " + maxBytes + " bytes allocated but allocated " + m.bytes());
+    }
+
+    private void awaitJobs(String type) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            boolean running = jobScheduler.findAll().stream()
+                .filter(job -> job.getType().equals(type))
+                .map(BackgroundJob::getStatus)
+                .anyMatch(status -> !status.isFinished());
+            if (!running) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Jobs of type " + type + " did not finish within 10 seconds");
+    }
+
+    // Generated IMDb export in which votes and ratings drift from snapshot to snapshot
+    private static MockMultipartFile csv(String snapshot, int snapshotIndex) {
+        StringBuilder csv = new StringBuilder(
+            "Const,Your Rating,Date Rated,Title,Original Title,URL,Title Type,IMDb Rating,Runtime (mins),"
+                + "Year,Genres,Num Votes,Release Date,Directors\n");
+
+        for (int i = 0; i < TITLES; i++) {
+            String imdbConst = String.format("tt%07d", i + 1);
+            int year = 1950 + i % 75;
+            double rating = 5.0 + (i % 50) / 10.0 + snapshotIndex / 10.0;
+            int votes = 1000 + i * 37 + snapshotIndex * (i % 13) * 11;
+
+            csv.append(imdbConst).append(',')
+                .append(1 + i % 10).append(',')
+                .append(String.format("2024-%02d-%02d", 1 + i % 12, 1 + i % 28)).append(',')
+                .append("Title ").append(i).append(',')
+                .append("Original Title ").append(i).append(',')
+                .append("https://www.imdb.com/title/").append(imdbConst).append("/,")
+                .append(TYPES[i % TYPES.length]).append(',')
+                .append(String.format(Locale.US, "%.1f", rating)).append(',')
+                .append(80 + i % 60).append(',')
+                .append(year).append(',')
+                .append('"').append(GENRES[i % GENRES.length]).append("\",")
+                .append(votes).append(',')
+                .append(year).append("-01-01,")
+                .append("\"Director ").append(i % 40).append(", Director ").append((i + 7) % 40).append("\"\n");
+        }
+
+        return new MockMultipartFile("file", snapshot + ".csv", "text/csv",
+            csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.imdb_backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import com.example.imdb_backend.service.ResponseFormats;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imdb_formats;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+    "imdb.vote-image.path=target/formats/vote-history.bin"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListEndpointFormatsTest {
+
+    private static final String SNAPSHOT = "01.01.2025";
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void importSnapshot() throws Exception {
+        mockMvc.perform(multipart("/api/imdb-ratings/upload").file(csv())).andExpect(status().isOk());
+    }
+
+    @Test
+    void listEndpointsAnswerInCborAndSmile() throws Exception {
+        List<MockHttpServletRequestBuilder> requests = List.of(
+            get("/api/imdb-ratings/file-names"),
+            get("/api/imdb-ratings/year-count").param("fromDate", SNAPSHOT),
+            get("/api/imdb-ratings/genre-stats").param("cutoffDate", "31.12.2030"),
+            get("/api/imdb-ratings/ratings-by-date").param("date", SNAPSHOT),
+            get("/api/imdb-ratings/directors/stats").param("date", SNAPSHOT));
+
+        for (MockHttpServletRequestBuilder request : requests) {
+            JsonNode expected = json.readTree(body(request, MediaType.APPLICATION_JSON));
+            assertFalse(expected.isEmpty(), expected::toString);
+
+            assertEquals(expected, cbor.readTree(body(request, ResponseFormats.CBOR)));
+            assertEquals(expected, smile.readTree(body(request, ResponseFormats.SMILE)));
+        }
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/api/imdb-ratings/year-count").param("fromDate", SNAPSHOT)
+                .accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void formatBenchmarkRejectsOnlyBadDates() throws Exception {
+        mockMvc.perform(get("/api/imdb-ratings/format-benchmark").param("date", "2025-01-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string("Invalid date format. Expected dd.MM.yyyy"));
+
+        JsonNode benchmark = json.readTree(mockMvc.perform(get("/api/imdb-ratings/format-benchmark")
+                .param("date", SNAPSHOT))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray());
+        assertEquals(3, benchmark.size());
+        for (JsonNode format : benchmark) {
+            assertEquals(31, format.get("runs").asInt());
+        }
+    }
+
+    private byte[] body(MockHttpServletRequestBuilder request, MediaType format) throws Exception {
+        return mockMvc.perform(request.accept(format))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(format))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private static MockMultipartFile csv() {
+        String csv = """
+            Const,Your Rating,Date Rated,Title,Original Title,URL,Title Type,IMDb Rating,Runtime (mins),Year,Genres,Num Votes,Release Date,Directors
+            tt0000001,8,2024-01-01,First,First,https://www.imdb.com/title/tt0000001/,Movie,7.5,100,2000,"Drama, Comedy",1000,2000-01-01,Someone
+            tt0000002,6,2024-02-01,Second,Second,https://www.imdb.com/title/tt0000002/,Short,6.1,20,2010,Comedy,50,2010-01-01,Someone Else
+            """;
+        return new MockMultipartFile("file", SNAPSHOT + ".csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
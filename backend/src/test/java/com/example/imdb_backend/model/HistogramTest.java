@@ -0,0 +1,41 @@
+package com.example.imdb_backend.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+    @Test
+    void clampsOutOfRangeBuckets() {
+        Histogram histogram = new Histogram(4);
+        histogram.add(-3);
+        histogram.add(0);
+        histogram.add(3);
+        histogram.add(9);
+
+        assertArrayEquals(new long[] {2, 0, 0, 2}, histogram.getCounts());
+        assertEquals(4, histogram.total());
+    }
+
+    @Test
+    void mergeAddsCounts() {
+        Histogram histogram = new Histogram(new long[] {1, 2, 3});
+        histogram.merge(new Histogram(new long[] {4, 0, 1}));
+
+        assertArrayEquals(new long[] {5, 2, 4}, histogram.getCounts());
+    }
+
+    @Test
+    void quantileBucketUsesTheRankOfTheQuantile() {
+        Histogram histogram = new Histogram(new long[] {2, 0, 1, 1});
+
+        assertEquals(-1, new Histogram(4).quantileBucket(0.5));
+        assertEquals(0, histogram.quantileBucket(0.0));
+        assertEquals(0, histogram.quantileBucket(0.5));
+        assertEquals(2, histogram.quantileBucket(0.75));
+        assertEquals(3, histogram.quantileBucket(0.9));
+        assertEquals(3, histogram.quantileBucket(1.0));
+    }
+}
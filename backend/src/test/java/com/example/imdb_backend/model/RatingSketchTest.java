@@ -0,0 +1,111 @@
+package com.example.imdb_backend.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class RatingSketchTest {
+
+    @Test
+    void imdbBucketsSplitOnTenths() {
+        assertEquals(0, RatingSketch.imdbBucket(0.0));
+        assertEquals(0, RatingSketch.imdbBucket(0.09));
+        assertEquals(1, RatingSketch.imdbBucket(0.1));
+        for (int i = 0; i <= 100; i++) {
+            assertEquals(i, RatingSketch.imdbBucket(Double.parseDouble(Double.toString(i / 10.0))));
+        }
+
+        // 10.0 is past the last bucket and is counted in it
+        RatingSketch sketch = new RatingSketch();
+        sketch.add(null, 10.0, null);
+        assertEquals(1, sketch.getImdbHistogram().getCounts()[RatingSketch.IMDB_BUCKETS - 1]);
+    }
+
+    @Test
+    void votesBucketsDoubleEveryFourBuckets() {
+        assertEquals(0, RatingSketch.votesBucket(0));
+        assertEquals(0, RatingSketch.votesBucket(-5));
+        assertEquals(1, RatingSketch.votesBucket(1));
+        for (int k = 1; k < 31; k++) {
+            assertEquals(1 + 4 * k, RatingSketch.votesBucket(1 << k));
+            if (k > 2) {
+                assertEquals(4 * k, RatingSketch.votesBucket((1 << k) - 1));
+            }
+        }
+    }
+
+    @Test
+    void personalRatingsUseOneBucketPerPoint() {
+        RatingSketch sketch = new RatingSketch();
+        sketch.add(1, null, null);
+        sketch.add(10, null, null);
+        sketch.add(0, null, null);
+        sketch.add(null, null, null);
+
+        assertEquals(4, sketch.getCount());
+        assertArrayEquals(new long[] {1, 0, 0, 0, 0, 0, 0, 0, 0, 1}, sketch.getPersonalHistogram().getCounts());
+    }
+
+    @Test
+    void quantilesStayWithinTheObservedValues() {
+        RatingSketch sketch = new RatingSketch();
+        for (int i = 0; i < 5; i++) {
+            sketch.add(null, 7.3, 1000);
+        }
+
+        assertEquals(7.3, sketch.imdbQuantile(0.5));
+        assertEquals(1000L, sketch.votesQuantile(0.5));
+        assertEquals(1000L, sketch.votesQuantile(0.9));
+    }
+
+    @Test
+    void quantilesOfAnEmptySketchAreNull() {
+        RatingSketch sketch = new RatingSketch();
+
+        assertNull(sketch.imdbQuantile(0.5));
+        assertNull(sketch.votesQuantile(0.5));
+    }
+
+    @Test
+    void quantilesBetweenTheBoundsUseBucketMidpoints() {
+        RatingSketch sketch = new RatingSketch();
+        sketch.add(null, 5.0, 10);
+        sketch.add(null, 6.42, 100);
+        sketch.add(null, 9.0, 100_000);
+
+        assertEquals(6.45, sketch.imdbQuantile(0.5), 1e-9);
+        assertEquals(RatingSketch.votesBucketValue(RatingSketch.votesBucket(100)), sketch.votesQuantile(0.5));
+    }
+
+    @Test
+    void mergeCombinesCountsGapsAndBounds() {
+        RatingSketch first = new RatingSketch();
+        first.add(8, 7.0, 500);
+        first.add(6, null, 20);
+
+        RatingSketch second = new RatingSketch();
+        second.add(4, 5.5, 3000);
+
+        RatingSketch empty = new RatingSketch();
+
+        first.merge(second);
+        first.merge(empty);
+
+        assertEquals(3, first.getCount());
+        assertEquals(2, first.getGapCount());
+        assertEquals((8 - 7.0) + (4 - 5.5), first.getGapSum(), 1e-9);
+        assertEquals(3, first.getPersonalHistogram().total());
+        assertEquals(2, first.getImdbHistogram().total());
+        assertEquals(3, first.getVotesHistogram().total());
+        assertEquals(5.5, first.getImdbMin());
+        assertEquals(7.0, first.getImdbMax());
+        assertEquals(20, first.getVotesMin());
+        assertEquals(3000, first.getVotesMax());
+
+        empty.merge(second);
+        assertEquals(5.5, empty.getImdbMin());
+        assertEquals(3000, empty.getVotesMax());
+    }
+}
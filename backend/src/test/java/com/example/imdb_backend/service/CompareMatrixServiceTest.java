@@ -0,0 +1,157 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+class CompareMatrixServiceTest {
+
+    private static final List<String> SNAPSHOTS = List.of("01.01.2025", "01.02.2025", "01.03.2025");
+
+    @TempDir
+    Path tempDir;
+
+    private final ImdbRatingRepository ratingRepository = mock(ImdbRatingRepository.class);
+    private final SnapshotCatalog snapshotCatalog = mock(SnapshotCatalog.class);
+
+    @Test
+    void comparesConsecutiveSnapshots() {
+        CompareMatrixService service = service(rows(
+            // In every snapshot
+            vote(1, "tt0000001", 0, 100, 7.0), vote(1, "tt0000001", 1, 150, 7.2), vote(1, "tt0000001", 2, 180, 7.5),
+            // Missing from the first snapshot, no rating in the last one
+            vote(2, "tt0000002", 1, 50, 6.0), vote(2, "tt0000002", 2, 70, null),
+            // Only in one snapshot, so it has nothing to compare
+            vote(3, "tt0000003", 0, 10, 5.0),
+            // Missing from the middle snapshot
+            vote(4, "tt0000004", 0, 20, 8.0), vote(4, "tt0000004", 2, 40, 8.1)));
+
+        Map<String, Object> result = service.compare(SNAPSHOTS, false, null, false);
+
+        List<Map<String, Object>> pairs = list(result.get("pairs"));
+        assertEquals(2, pairs.size());
+        assertPair(pairs.get(0), SNAPSHOTS.get(0), SNAPSHOTS.get(1), 1, 50, 0.2);
+        assertPair(pairs.get(1), SNAPSHOTS.get(1), SNAPSHOTS.get(2), 2, 50, 0.3);
+
+        List<Map<String, Object>> titles = list(result.get("titles"));
+        assertEquals(List.of("tt0000001", "tt0000002", "tt0000004"), titles.stream().map(t -> t.get("const")).toList());
+        assertEquals(List.of(1, 2, 3), titles.stream().map(t -> t.get("id")).toList());
+
+        assertArrayEquals(new Integer[] {100, 150, 180}, (Integer[]) titles.get(0).get("votes"));
+        assertArrayEquals(new Integer[] {50, 30}, (Integer[]) titles.get(0).get("voteDifferences"));
+        assertArrayEquals(new Double[] {0.2, 0.3}, (Double[]) titles.get(0).get("ratingDifferences"));
+
+        assertArrayEquals(new Integer[] {null, 50, 70}, (Integer[]) titles.get(1).get("votes"));
+        assertArrayEquals(new Double[] {null, 6.0, null}, (Double[]) titles.get(1).get("ratings"));
+        assertArrayEquals(new Integer[] {null, 20}, (Integer[]) titles.get(1).get("voteDifferences"));
+        assertArrayEquals(new Double[] {null, null}, (Double[]) titles.get(1).get("ratingDifferences"));
+
+        assertArrayEquals(new Integer[] {null, null}, (Integer[]) titles.get(2).get("voteDifferences"));
+    }
+
+    @Test
+    void comparesAllPairsInTheRequestedOrder() {
+        CompareMatrixService service = service(rows(
+            vote(1, "tt0000001", 0, 100, 7.0), vote(1, "tt0000001", 1, 150, 7.2), vote(1, "tt0000001", 2, 180, 7.5),
+            vote(4, "tt0000004", 0, 20, 8.0), vote(4, "tt0000004", 2, 40, 8.1)));
+
+        List<String> dates = List.of(SNAPSHOTS.get(2), SNAPSHOTS.get(1), SNAPSHOTS.get(0));
+        Map<String, Object> result = service.compare(dates, true, null, false);
+
+        List<Map<String, Object>> pairs = list(result.get("pairs"));
+        assertEquals(3, pairs.size());
+        assertPair(pairs.get(0), dates.get(0), dates.get(1), 1, -30, -0.3);
+        assertPair(pairs.get(1), dates.get(0), dates.get(2), 2, -100, -0.3);
+        assertPair(pairs.get(2), dates.get(1), dates.get(2), 1, -50, -0.2);
+    }
+
+    @Test
+    void searchFiltersTitlesAndTotals() {
+        CompareMatrixService service = service(rows(
+            vote(1, "tt0000001", 0, 100, 7.0), vote(1, "tt0000001", 1, 150, 7.2),
+            vote(2, "tt0000002", 0, 10, 6.0), vote(2, "tt0000002", 1, 70, 6.1)));
+
+        Map<String, Object> result = service.compare(SNAPSHOTS.subList(0, 2), false, "TITLE 2", false);
+
+        assertEquals(1, list(result.get("titles")).size());
+        assertPair(list(result.get("pairs")).get(0), SNAPSHOTS.get(0), SNAPSHOTS.get(1), 1, 60, 0.1);
+    }
+
+    @Test
+    void parallelChunksGiveTheSameResult() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= 3000; id++) {
+            String imdbConst = String.format("tt%07d", id);
+            for (int s = 0; s < SNAPSHOTS.size(); s++) {
+                if ((id + s) % 7 != 0) {
+                    rows.add(vote(id, imdbConst, s, id * (s + 1), (id % 90 + s) / 10.0));
+                }
+            }
+        }
+        CompareMatrixService service = service(rows);
+
+        Map<String, Object> sequential = service.compare(SNAPSHOTS, true, null, false);
+        Map<String, Object> parallel = service.compare(SNAPSHOTS, true, null, true);
+
+        assertEquals(sequential.get("pairs"), parallel.get("pairs"));
+        assertEquals(list(sequential.get("titles")).size(), list(parallel.get("titles")).size());
+    }
+
+    @Test
+    void rejectsAnUnknownSnapshot() {
+        CompareMatrixService service = service(rows(vote(1, "tt0000001", 0, 100, 7.0)));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> service.compare(List.of(SNAPSHOTS.get(0), "01.01.1999"), false, null, false));
+    }
+
+    private CompareMatrixService service(List<Object[]> voteRows) {
+        when(snapshotCatalog.snapshots()).thenReturn(SNAPSHOTS);
+        when(ratingRepository.findVoteHistoryRows()).thenReturn(voteRows);
+
+        List<Object[]> metadata = new ArrayList<>();
+        voteRows.stream().map(row -> (Integer) row[0]).distinct().forEach(id -> metadata.add(new Object[] {
+            id, "Original " + id, 2000, "https://www.imdb.com/title/" + id, "2024-01-01",
+            "Title " + id, String.format("tt%07d", id), "Movie", "Director", "Drama"}));
+        when(ratingRepository.findTitleMetadata()).thenReturn(metadata);
+
+        VoteHistoryImage image = new VoteHistoryImage(ratingRepository, snapshotCatalog,
+            tempDir.resolve("vote-history.bin").toString());
+        image.rebuild();
+        return new CompareMatrixService(image, ratingRepository);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static Object[] vote(int id, String imdbConst, int snapshot, int votes, Double rating) {
+        return new Object[] {id, imdbConst, SNAPSHOTS.get(snapshot), votes, rating};
+    }
+
+    private static void assertPair(Map<String, Object> pair, String from, String to, long titles, long votes,
+                                   double avgRating) {
+        assertEquals(from, pair.get("from"));
+        assertEquals(to, pair.get("to"));
+        assertEquals(titles, pair.get("titles"));
+        assertEquals(votes, pair.get("voteDifference"));
+        assertEquals(avgRating, (Double) pair.get("avgRatingDifference"), 1e-9);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> list(Object value) {
+        return (List<Map<String, Object>>) value;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+class DashboardServiceTest {
+
+    private static final String CUTOFF = "31.12.2025";
+    private static final String SNAPSHOT = "01.01.2025";
+
+    private final StatsService statsService = mock(StatsService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final DashboardService service = new DashboardService(statsService, transactionManager, 200);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void returnsTheOtherSectionsWhenOneFailsAndOneTimesOut() {
+        when(statsService.yearCounts(SNAPSHOT)).thenReturn(Map.of("years", List.of()));
+        when(statsService.yearlyAverages(CUTOFF)).thenReturn(List.of(Map.of("year", 2000)));
+        when(statsService.titleTypeCounts(CUTOFF)).thenReturn(List.of(Map.of("titleType", "Movie")));
+        when(statsService.genreStats(CUTOFF)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(statsService.countryCounts()).thenThrow(new IllegalStateException("connection lost"));
+
+        Map<String, Object> dashboard = service.load(CUTOFF, SNAPSHOT);
+
+        assertFalse((Boolean) dashboard.get("complete"));
+        assertEquals(Map.of("genreStats", "Timed out after 200 ms", "countryCounts", "connection lost"),
+            dashboard.get("errors"));
+        assertEquals(Map.of("years", List.of()), dashboard.get("yearCount"));
+        assertEquals(List.of(Map.of("year", 2000)), dashboard.get("yearlyAverage"));
+        assertEquals(List.of(Map.of("titleType", "Movie")), dashboard.get("titleTypeCount"));
+        assertFalse(dashboard.containsKey("genreStats"));
+        assertFalse(dashboard.containsKey("countryCounts"));
+    }
+
+    @Test
+    void sectionQueriesRunWithTheSectionTimeout() {
+        when(statsService.countryCounts()).thenReturn(List.of());
+
+        assertTrue((Boolean) service.load(CUTOFF, SNAPSHOT).get("complete"));
+
+        // 200 ms rounds up to the one second granularity of transaction timeouts
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, atLeastOnce()).getTransaction(definitions.capture());
+        for (TransactionDefinition definition : definitions.getAllValues()) {
+            assertEquals(1, definition.getTimeout());
+        }
+        verify(transactionManager, atLeastOnce()).commit(any());
+    }
+}
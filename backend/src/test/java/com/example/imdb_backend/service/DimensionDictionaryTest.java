@@ -0,0 +1,85 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imdb_dimensions;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+    "imdb.vote-image.path=target/dimensions/vote-history.bin"
+})
+@ActiveProfiles("perf")
+class DimensionDictionaryTest {
+
+    @Autowired
+    private DimensionDictionary dimensionDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resolvesTheSameKeyForALabelAndNoneForBlanks() {
+        Short western = dimensionDictionary.genreId("Western");
+
+        assertNotNull(western);
+        assertEquals(western, dimensionDictionary.genreId("Western"));
+        assertNotEquals(western, dimensionDictionary.genreId("Musical"));
+        assertNull(dimensionDictionary.genreId(null));
+        assertNull(dimensionDictionary.genreId(" "));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM dim_genre WHERE label = 'Western'", Integer.class));
+    }
+
+    @Test
+    void mainGenreIsTheTrimmedFirstEntry() {
+        assertEquals("Drama", DimensionDictionary.mainGenre("Drama"));
+        assertEquals("Comedy", DimensionDictionary.mainGenre(" Comedy , Drama"));
+        assertEquals("", DimensionDictionary.mainGenre(""));
+        assertNull(DimensionDictionary.mainGenre(null));
+    }
+
+    @Test
+    void backfillEncodesRowsWrittenWithoutKeys() {
+        insert("tt9000001", "Movie", "Drama, Comedy", "Japan");
+        insert("tt9000002", "TV Series", " Horror ", "");
+        insert("tt9000003", "Movie", "", null);
+
+        dimensionDictionary.backfill();
+
+        Map<String, Object> first = row("tt9000001");
+        assertEquals(dimensionDictionary.titleTypeId("Movie"), ((Number) first.get("title_type_id")).shortValue());
+        assertEquals(dimensionDictionary.genreId("Drama"), ((Number) first.get("main_genre_id")).shortValue());
+        assertEquals(dimensionDictionary.countryId("Japan"), ((Number) first.get("country_id")).shortValue());
+
+        Map<String, Object> second = row("tt9000002");
+        assertEquals(dimensionDictionary.titleTypeId("TV Series"), ((Number) second.get("title_type_id")).shortValue());
+        assertEquals(dimensionDictionary.genreId("Horror"), ((Number) second.get("main_genre_id")).shortValue());
+        assertNull(second.get("country_id"));
+
+        // Blank genres have no main genre and stay in the NULL group
+        Map<String, Object> third = row("tt9000003");
+        assertEquals(dimensionDictionary.titleTypeId("Movie"), ((Number) third.get("title_type_id")).shortValue());
+        assertNull(third.get("main_genre_id"));
+        assertNull(third.get("country_id"));
+    }
+
+    private void insert(String imdbConst, String titleType, String genres, String country) {
+        jdbcTemplate.update(
+            "INSERT INTO imdb_ratings (imdb_const, title, title_type, genres, country_of_origin) VALUES (?, ?, ?, ?, ?)",
+            imdbConst, "Title " + imdbConst, titleType, genres, country);
+    }
+
+    private Map<String, Object> row(String imdbConst) {
+        return jdbcTemplate.queryForMap(
+            "SELECT title_type_id, main_genre_id, country_id FROM imdb_ratings WHERE imdb_const = ?", imdbConst);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.imdb_backend.model.BackgroundJob;
+import com.example.imdb_backend.model.JobStatus;
+import com.example.imdb_backend.repository.BackgroundJobRepository;
+
+class JobSchedulerTest {
+
+    private static final String TYPE = "import-dump";
+    private static final String FAILING_TYPE = "failing";
+
+    private final BackgroundJobRepository jobRepository = mock(BackgroundJobRepository.class);
+
+    private final JobScheduler scheduler = new JobScheduler(jobRepository, List.of(new JobHandler() {
+        @Override
+        public String getJobType() {
+            return TYPE;
+        }
+
+        @Override
+        public void run(JobContext context) {
+        }
+    }, new JobHandler() {
+        @Override
+        public String getJobType() {
+            return FAILING_TYPE;
+        }
+
+        @Override
+        public void run(JobContext context) throws IOException {
+            throw new IOException("Unexpected character in secret.json: {\"password\": \"hunter2\"}");
+        }
+    }));
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void returnsTheActiveJobForTheSameParameter() {
+        BackgroundJob active = activeJob("dumps/a.json");
+
+        assertSame(active, scheduler.submit(TYPE, "dumps/a.json"));
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectsADifferentParameterWhileAJobIsActive() {
+        activeJob("dumps/a.json");
+
+        assertThrows(IllegalStateException.class, () -> scheduler.submit(TYPE, "dumps/b.json"));
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void storesAGenericMessageForAFailedJob() throws Exception {
+        when(jobRepository.save(any())).thenAnswer(invocation -> {
+            BackgroundJob saved = invocation.getArgument(0);
+            ReflectionTestUtils.setField(saved, "id", 1L);
+            return saved;
+        });
+
+        BackgroundJob job = scheduler.submit(FAILING_TYPE, "secret.json");
+        for (int i = 0; i < 100 && job.getStatus() != JobStatus.FAILED; i++) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals(JobScheduler.FAILED_MESSAGE, job.getMessage());
+    }
+
+    private BackgroundJob activeJob(String parameter) {
+        BackgroundJob job = new BackgroundJob();
+        job.setType(TYPE);
+        job.setParameter(parameter);
+        job.setStatus(JobStatus.RUNNING);
+        when(jobRepository.findByTypeAndStatusIn(eq(TYPE), any())).thenReturn(List.of(job));
+        return job;
+    }
+}
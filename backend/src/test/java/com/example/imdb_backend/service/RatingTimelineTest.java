@@ -0,0 +1,257 @@
+package com.example.imdb_backend.service;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.imdb_backend.model.ImdbRating;
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * Checks the cutoff sections answered from the {@link RatingTimeline} against
+ * the GROUP BY queries they replaced, and the bucket boundaries of the activity
+ * endpoint.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imdb_timeline;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+    "imdb.vote-image.path=target/timeline/vote-history.bin"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RatingTimelineTest {
+
+    private static final String YEARLY_AVERAGES = """
+        SELECT year, COUNT(id) AS movie_count, AVG(your_rating) AS avg_rating
+        FROM imdb_ratings
+        WHERE date_rated <= STR_TO_DATE(?, '%d.%m.%Y')
+        GROUP BY year
+        ORDER BY year
+        """;
+
+    private static final String TITLE_TYPE_COUNTS = """
+        SELECT d.label, t.total
+        FROM (
+            SELECT title_type_id, COUNT(*) AS total
+            FROM imdb_ratings
+            WHERE date_rated <= STR_TO_DATE(?, '%d.%m.%Y')
+            GROUP BY title_type_id
+        ) t
+        LEFT JOIN dim_title_type d ON d.id = t.title_type_id
+        """;
+
+    private static final String GENRE_STATS = """
+        SELECT d.label, g.total, g.avg_rating
+        FROM (
+            SELECT main_genre_id, COUNT(id) AS total, AVG(your_rating) AS avg_rating
+            FROM imdb_ratings
+            WHERE date_rated <= STR_TO_DATE(?, '%d.%m.%Y')
+            GROUP BY main_genre_id
+        ) g
+        LEFT JOIN dim_genre d ON d.id = g.main_genre_id
+        ORDER BY g.total DESC
+        """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ImdbRatingRepository ratingRepository;
+
+    @Autowired
+    private DimensionDictionary dimensionDictionary;
+
+    @Autowired
+    private RatingTimeline ratingTimeline;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        rating("tt01", "2024-01-10", 8, 1999, "Movie", "Drama");
+        rating("tt02", "2024-01-10", null, 1999, "TV Series", "Comedy, Drama");
+        rating("tt03", "2024-01-31", 7, 2005, "Movie", "Comedy");
+        rating("tt04", "2024-01-31", 6, 2005, "Short", "Drama, Action");
+        rating("tt05", "2024-01-31", null, 2010, "Movie", "Horror");
+        rating("tt06", "2024-01-31", null, 2012, "Movie", "Horror");
+        rating("tt07", "2024-02-01", 9, 1999, "Movie", "Drama");
+        rating("tt08", "2024-02-29", 5, 2010, "TV Movie", "Comedy");
+        rating("tt09", "2024-03-10", 10, 2005, "Movie", "Documentary");
+        rating("tt10", null, 4, 2005, "Movie", "Drama");
+        ratingTimeline.rebuild();
+    }
+
+    // Before the first rating, on a day with several ratings, between days and after the last one
+    @ParameterizedTest
+    @ValueSource(strings = {"09.01.2024", "10.01.2024", "31.01.2024", "05.02.2024", "31.12.2030"})
+    void matchesTheReplacedQueries(String cutoff) {
+        List<Map<String, Object>> yearly = jdbcTemplate.query(YEARLY_AVERAGES, (rs, i) -> {
+            Map<String, Object> m = new HashMap<>();
+            double avgRating = rs.getObject(3) != null ? rs.getDouble(3) : 0.0;
+            m.put("id", rs.getInt(1));
+            m.put("year", rs.getInt(1));
+            m.put("itemsNum", rs.getLong(2));
+            m.put("avgRating", String.format(Locale.US, "%.2f", avgRating));
+            return m;
+        }, cutoff);
+        assertEquals(yearly, statsService.yearlyAverages(cutoff));
+
+        Set<Map<String, Object>> titleTypes = new HashSet<>(jdbcTemplate.query(TITLE_TYPE_COUNTS, (rs, i) -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", rs.getString(1));
+            m.put("titleType", rs.getString(1));
+            m.put("count", rs.getLong(2));
+            return m;
+        }, cutoff));
+        assertEquals(titleTypes, new HashSet<>(statsService.titleTypeCounts(cutoff)));
+
+        List<Map<String, Object>> genres = jdbcTemplate.query(GENRE_STATS, (rs, i) -> {
+            Map<String, Object> m = new HashMap<>();
+            double avgRating = rs.getObject(3) != null ? rs.getDouble(3) : 0.0;
+            m.put("id", rs.getString(1));
+            m.put("genre", rs.getString(1));
+            m.put("count", rs.getLong(2));
+            m.put("avgRating", Math.round(avgRating * 100.0) / 100.0);
+            return m;
+        }, cutoff);
+        List<Map<String, Object>> actual = statsService.genreStats(cutoff);
+        assertEquals(new HashSet<>(genres), new HashSet<>(actual));
+        for (int i = 1; i < actual.size(); i++) {
+            assertTrue((Long) actual.get(i - 1).get("count") >= (Long) actual.get(i).get("count"));
+        }
+    }
+
+    @Test
+    void weekBucketsStartOnMondayAfterAClippedFirstWeek() throws Exception {
+        mockMvc.perform(get("/api/imdb-ratings/activity")
+                .param("from", "03.01.2024")
+                .param("to", "31.01.2024")
+                .param("bucket", "week"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(6))
+            .andExpect(jsonPath("$.buckets.length()").value(5))
+            .andExpect(jsonPath("$.buckets[0].start").value("2024-01-03"))
+            .andExpect(jsonPath("$.buckets[0].end").value("2024-01-07"))
+            .andExpect(jsonPath("$.buckets[0].count").value(0))
+            .andExpect(jsonPath("$.buckets[1].start").value("2024-01-08"))
+            .andExpect(jsonPath("$.buckets[1].end").value("2024-01-14"))
+            .andExpect(jsonPath("$.buckets[1].count").value(2))
+            .andExpect(jsonPath("$.buckets[1].avgRating").value(8.0))
+            .andExpect(jsonPath("$.buckets[4].start").value("2024-01-29"))
+            .andExpect(jsonPath("$.buckets[4].end").value("2024-01-31"))
+            .andExpect(jsonPath("$.buckets[4].count").value(4))
+            .andExpect(jsonPath("$.buckets[4].avgRating").value(6.5))
+            .andExpect(jsonPath("$.buckets[4].cumulativeCount").value(6));
+    }
+
+    @Test
+    void monthBucketsFollowCalendarMonths() throws Exception {
+        mockMvc.perform(get("/api/imdb-ratings/activity")
+                .param("from", "15.01.2024")
+                .param("to", "10.03.2024")
+                .param("bucket", "month")
+                .param("dimension", "titleType"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.buckets.length()").value(3))
+            .andExpect(jsonPath("$.buckets[0].start").value("2024-01-15"))
+            .andExpect(jsonPath("$.buckets[0].end").value("2024-01-31"))
+            .andExpect(jsonPath("$.buckets[0].count").value(4))
+            .andExpect(jsonPath("$.buckets[1].start").value("2024-02-01"))
+            .andExpect(jsonPath("$.buckets[1].end").value("2024-02-29"))
+            .andExpect(jsonPath("$.buckets[1].count").value(2))
+            .andExpect(jsonPath("$.buckets[1].keys.length()").value(2))
+            .andExpect(jsonPath("$.buckets[2].start").value("2024-03-01"))
+            .andExpect(jsonPath("$.buckets[2].end").value("2024-03-10"))
+            .andExpect(jsonPath("$.buckets[2].count").value(1))
+            .andExpect(jsonPath("$.buckets[2].cumulativeCount").value(9));
+    }
+
+    @Test
+    void rejectsMoreThanMaxBuckets() throws Exception {
+        mockMvc.perform(get("/api/imdb-ratings/activity")
+                .param("from", "01.01.2000")
+                .param("to", "31.12.2024")
+                .param("bucket", "day"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("More than " + RatingTimeline.MAX_BUCKETS + " buckets")));
+    }
+
+    @Test
+    void aBuildThatOverlapsAnInvalidationIsNotKept() throws Exception {
+        ImdbRatingRepository repository = mock(ImdbRatingRepository.class);
+        RatingTimeline timeline = new RatingTimeline(repository);
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        Object[] first = {LocalDate.of(2024, 1, 10), 8, 1999, "Movie", "Drama", null};
+        Object[] imported = {LocalDate.of(2024, 2, 1), 6, 2005, "Short", "Comedy", null};
+        when(repository.findTimelineRows())
+            .thenAnswer(invocation -> {
+                // Reads the table before an import writes to it
+                building.countDown();
+                invalidated.await(5, TimeUnit.SECONDS);
+                return List.<Object[]>of(first);
+            })
+            .thenReturn(List.of(first, imported));
+
+        CompletableFuture<Void> staleBuild = CompletableFuture.runAsync(timeline::rebuild);
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+        timeline.invalidate();
+        invalidated.countDown();
+        staleBuild.get(5, TimeUnit.SECONDS);
+
+        // The overlapping build was dropped, so the next read goes back to the database
+        Map<String, RatingTimeline.Totals> totals =
+            timeline.until(RatingDistributionService.ALL, LocalDate.of(2024, 12, 31));
+        assertEquals(2, totals.get(RatingDistributionService.ALL).count());
+        verify(repository, times(2)).findTimelineRows();
+    }
+
+    private void rating(String imdbConst, String dateRated, Integer yourRating, int year, String titleType,
+            String genres) {
+        ImdbRating rating = new ImdbRating();
+        rating.setImdbConst(imdbConst);
+        rating.setTitle("Title " + imdbConst);
+        rating.setDateRated(dateRated != null ? LocalDate.parse(dateRated) : null);
+        rating.setYourRating(yourRating);
+        rating.setYear(year);
+        rating.setTitleType(titleType);
+        rating.setGenres(genres);
+        dimensionDictionary.encode(rating);
+        ratingRepository.save(rating);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+class SimilarTitlesServiceTest {
+
+    private static final String[] GENRES = {"Drama", "Comedy", "Action", "Horror", "Documentary", "Romance"};
+    private static final String[] COUNTRIES = {"United States", "France", "Japan", "Italy"};
+    private static final String[] TYPES = {"Movie", "TV Series", "Short"};
+
+    private final ImdbRatingRepository ratingRepository = mock(ImdbRatingRepository.class);
+    private final SimilarTitlesService service = new SimilarTitlesService(ratingRepository);
+
+    @Test
+    void ranksByWeightedJaccard() {
+        when(ratingRepository.findSimilarityFeatures()).thenReturn(List.of(
+            row("tt1", 2001, "Movie", "Drama", "Director X", "United States"),
+            // Shares genre, country, decade and type: 3.25 of 7.25
+            row("tt2", 2003, "Movie", "Drama", "Director Y", "United States"),
+            // Shares only type: 0.5 of 10
+            row("tt3", 1985, "Movie", "Comedy", "Director Z", "France"),
+            // Shares genre and the heavier director: 3 of 7.5
+            row("tt4", 1972, "Short", "Drama", "Director X", "France")));
+        service.rebuild();
+
+        List<Map<String, Object>> similar = service.findSimilar("tt1", 10);
+
+        assertEquals(List.of("tt2", "tt4", "tt3"), similar.stream().map(m -> m.get("const")).toList());
+        assertEquals(List.of(0.448, 0.4, 0.05), similar.stream().map(m -> m.get("score")).toList());
+    }
+
+    @Test
+    void lookupsDoNotBuildOnTheRequestThread() {
+        assertThrows(IllegalStateException.class, () -> service.findSimilar("tt1", 10));
+
+        verify(ratingRepository, never()).findSimilarityFeatures();
+    }
+
+    @Test
+    void theStartupBuildIsSkippedOnceAnIndexExists() {
+        when(ratingRepository.findSimilarityFeatures()).thenReturn(library(20));
+        service.refresh();
+        service.buildIfMissing();
+
+        verify(ratingRepository, times(1)).findSimilarityFeatures();
+        assertEquals(10, service.findSimilar("tt0000000", 10).size());
+    }
+
+    @Test
+    void refreshMatchesAFullRebuild() {
+        List<Object[]> rows = library(400);
+
+        // Start from the first 360 titles, then add 40 and change the country of a few existing ones
+        when(ratingRepository.findSimilarityFeatures()).thenReturn(rows.subList(0, 360));
+        service.rebuild();
+        for (int i : new int[] {3, 57, 120, 299}) {
+            rows.get(i)[6] = "Korea";
+        }
+        when(ratingRepository.findSimilarityFeatures()).thenReturn(rows);
+        service.refresh();
+
+        ImdbRatingRepository fullRepository = mock(ImdbRatingRepository.class);
+        when(fullRepository.findSimilarityFeatures()).thenReturn(rows);
+        SimilarTitlesService full = new SimilarTitlesService(fullRepository);
+        full.rebuild();
+
+        for (Object[] row : rows) {
+            String imdbConst = (String) row[0];
+            assertEquals(full.findSimilar(imdbConst, SimilarTitlesService.MAX_NEIGHBORS),
+                service.findSimilar(imdbConst, SimilarTitlesService.MAX_NEIGHBORS), imdbConst);
+        }
+    }
+
+    private static List<Object[]> library(int size) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            rows.add(row(String.format("tt%07d", i), 1950 + random.nextInt(75), TYPES[random.nextInt(TYPES.length)],
+                GENRES[random.nextInt(GENRES.length)] + ", " + GENRES[random.nextInt(GENRES.length)],
+                "Director " + random.nextInt(30), COUNTRIES[random.nextInt(COUNTRIES.length)]));
+        }
+        return rows;
+    }
+
+    private static Object[] row(String imdbConst, int year, String titleType, String genres, String directors,
+                                String country) {
+        return new Object[] {imdbConst, "Title " + imdbConst, year, titleType, genres, directors, country};
+    }
+}
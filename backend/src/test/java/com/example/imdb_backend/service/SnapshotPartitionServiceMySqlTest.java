@@ -0,0 +1,127 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the partition migration against a real MySQL server. Skipped when
+ * Docker is not available.
+ */
+@SpringBootTest(properties = {
+    "imdb.partitioning.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "imdb.vote-image.path=target/mysql-test/vote-history.bin"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class SnapshotPartitionServiceMySqlTest {
+
+    private static final String SNAPSHOT = "01.01.2025";
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private SnapshotPartitionService partitionService;
+
+    @Autowired
+    private ImdbCsvImporter importer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void partitionEverything() {
+        partitionService.partitionTables();
+    }
+
+    @Test
+    void partitionsEveryTableOnStartup() {
+        for (String table : SnapshotPartitionService.SNAPSHOT_TABLES) {
+            assertTrue(isPartitioned(table), table + " is not partitioned");
+        }
+    }
+
+    @Test
+    void importsIntoAndDropsASnapshotPartition() {
+        importer.importCsv(csv());
+        for (String table : SnapshotPartitionService.SNAPSHOT_TABLES) {
+            assertTrue(partitionNames(table).contains(SnapshotPartitionService.partitionName(SNAPSHOT)));
+            assertEquals(2, rows(table));
+        }
+
+        assertEquals(2, partitionService.deleteSnapshot(SNAPSHOT));
+        for (String table : SnapshotPartitionService.SNAPSHOT_TABLES) {
+            assertFalse(partitionNames(table).contains(SnapshotPartitionService.partitionName(SNAPSHOT)));
+            assertEquals(0, rows(table));
+        }
+    }
+
+    @Test
+    void leavesATableAloneWhenAUniqueKeyBlocksPartitioningAndResumesLater() {
+        String table = "imdb_num_votes";
+        jdbcTemplate.execute("ALTER TABLE " + table + " REMOVE PARTITIONING");
+        jdbcTemplate.execute("ALTER TABLE " + table
+            + " ADD CONSTRAINT fk_test_votes FOREIGN KEY (imdb_const) REFERENCES imdb_ratings (id)");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD UNIQUE KEY uk_test_votes (imdb_const)");
+
+        partitionService.partitionTables();
+
+        assertFalse(isPartitioned(table));
+        assertEquals(List.of("fk_test_votes"), foreignKeys(table));
+
+        // Once the blocking key is gone the next run finishes the migration
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP INDEX uk_test_votes");
+        partitionService.partitionTables();
+
+        assertTrue(isPartitioned(table));
+        assertTrue(foreignKeys(table).isEmpty());
+    }
+
+    private boolean isPartitioned(String table) {
+        return !partitionNames(table).isEmpty();
+    }
+
+    private List<String> partitionNames(String table) {
+        return jdbcTemplate.queryForList("""
+            SELECT PARTITION_NAME FROM information_schema.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+            """, String.class, table);
+    }
+
+    private List<String> foreignKeys(String table) {
+        return jdbcTemplate.queryForList("""
+            SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+            WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = ?
+            """, String.class, table);
+    }
+
+    private int rows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE file_date = ?",
+            Integer.class, SNAPSHOT);
+    }
+
+    private static MockMultipartFile csv() {
+        String csv = """
+            Const,Your Rating,Date Rated,Title,Original Title,URL,Title Type,IMDb Rating,Runtime (mins),Year,Genres,Num Votes,Release Date,Directors
+            tt0000001,8,2024-01-01,First,First,https://www.imdb.com/title/tt0000001/,Movie,7.5,100,2000,Drama,1000,2000-01-01,Someone
+            tt0000002,6,2024-02-01,Second,Second,https://www.imdb.com/title/tt0000002/,Short,6.1,20,2010,Comedy,50,2010-01-01,Someone Else
+            """;
+        return new MockMultipartFile("file", SNAPSHOT + ".csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
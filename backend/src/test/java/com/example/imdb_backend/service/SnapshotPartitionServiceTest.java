@@ -0,0 +1,134 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+/**
+ * Row-delete path of {@link SnapshotPartitionService} on H2. The MySQL
+ * partition DDL is covered by {@link SnapshotPartitionServiceMySqlTest}.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imdb_partitions;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+    "imdb.vote-image.path=target/partitions/vote-history.bin"
+})
+@ActiveProfiles("perf")
+class SnapshotPartitionServiceTest {
+
+    private static final String SNAPSHOT = "01.01.2025";
+
+    @Autowired
+    private SnapshotPartitionService partitionService;
+
+    @Autowired
+    private ImdbCsvImporter importer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private ImdbRatingRepository ratingRepository;
+
+    // Re-importing a title outside a request cannot load its collections, so every test imports new titles
+    private static int imported;
+
+    @BeforeEach
+    void importSnapshot() {
+        importer.importCsv(csv(imported++));
+    }
+
+    @AfterEach
+    void deleteSnapshot() {
+        reset(ratingRepository);
+        partitionService.deleteSnapshot(SNAPSHOT);
+    }
+
+    @Test
+    void deletesEveryRowOfTheSnapshot() {
+        assertEquals(2, partitionService.deleteSnapshot(SNAPSHOT));
+
+        for (String table : SnapshotPartitionService.SNAPSHOT_TABLES) {
+            assertEquals(0, rows(table), table);
+        }
+    }
+
+    @Test
+    void aFailedDeleteLeavesTheSnapshotWhole() {
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+            .when(ratingRepository).deleteContainsByFileDate(anyString());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> partitionService.deleteSnapshot(SNAPSHOT));
+
+        for (String table : SnapshotPartitionService.SNAPSHOT_TABLES) {
+            assertEquals(2, rows(table), table);
+        }
+    }
+
+    @Test
+    void aSecondDeleteWaitsForTheFirstToCommit() throws Exception {
+        CompletableFuture<Integer> second = new CompletableFuture<>();
+        doAnswer(invocation -> {
+            int deleted = jdbcTemplate.update("DELETE FROM imdb_contains WHERE file_date = ?", SNAPSHOT);
+            Thread thread = new Thread(() -> second.complete(partitionService.deleteSnapshot(SNAPSHOT)));
+            thread.start();
+            while (thread.getState() != Thread.State.BLOCKED && !second.isDone()) {
+                Thread.onSpinWait();
+            }
+            // Gives the second delete time to count the rows if it got in before the commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    sleep(200);
+                }
+            });
+            return deleted;
+        }).when(ratingRepository).deleteContainsByFileDate(anyString());
+
+        assertEquals(2, partitionService.deleteSnapshot(SNAPSHOT));
+        assertEquals(0, second.get(10, TimeUnit.SECONDS));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int rows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE file_date = ?",
+            Integer.class, SNAPSHOT);
+    }
+
+    private static MockMultipartFile csv(int batch) {
+        String csv = """
+            Const,Your Rating,Date Rated,Title,Original Title,URL,Title Type,IMDb Rating,Runtime (mins),Year,Genres,Num Votes,Release Date,Directors
+            tt%1$d1,8,2024-01-01,First,First,https://www.imdb.com/title/tt%1$d1/,Movie,7.5,100,2000,Drama,1000,2000-01-01,Someone
+            tt%1$d2,6,2024-02-01,Second,Second,https://www.imdb.com/title/tt%1$d2/,Short,6.1,20,2010,Comedy,50,2010-01-01,Someone Else
+            """.formatted(1000000 + batch);
+        return new MockMultipartFile("file", SNAPSHOT + ".csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+class SnapshotResponseCacheTest {
+
+    private static final String DATE = "01.01.2025";
+
+    private final ImdbRatingRepository ratingRepository = mock(ImdbRatingRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SnapshotResponseCache cache = new SnapshotResponseCache(ratingRepository, objectMapper,
+        new ResponseFormats(objectMapper, new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter()), 8);
+
+    @Test
+    void doesNotCacheABuildThatOverlapsAnInvalidation() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        when(ratingRepository.findRatingsByDate(DATE)).thenAnswer(invocation -> {
+            building.countDown();
+            invalidated.await(5, TimeUnit.SECONDS);
+            return List.<Object[]>of(row());
+        });
+
+        CompletableFuture<SnapshotResponseCache.CachedResponse> request =
+            CompletableFuture.supplyAsync(() -> {
+                try {
+                    return cache.get(DATE);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+        cache.invalidate(DATE);
+        invalidated.countDown();
+        request.get(5, TimeUnit.SECONDS);
+
+        // The overlapping build was discarded, so the next request goes back to the database
+        when(ratingRepository.findRatingsByDate(DATE)).thenReturn(List.<Object[]>of(row()));
+        cache.get(DATE);
+        cache.get(DATE);
+        verify(ratingRepository, times(2)).findRatingsByDate(DATE);
+    }
+
+    @Test
+    void honoursGzipQualityValues() {
+        assertTrue(ResponseFormats.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ResponseFormats.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertTrue(ResponseFormats.acceptsGzip("*"));
+        assertFalse(ResponseFormats.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseFormats.acceptsGzip("*, gzip;q=0"));
+        assertFalse(ResponseFormats.acceptsGzip("identity"));
+        assertFalse(ResponseFormats.acceptsGzip(null));
+    }
+
+    private static Object[] row() {
+        return new Object[] {"tt0000001", "Title", "Original", "url", "Movie", 7.5, 100, 2000, 8,
+            "2024-01-01", "Drama", 1000, "2000-01-01", "Director"};
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+class TitleHistoryServiceTest {
+
+    private static final String TITLE = "tt0000001";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void keepsShortSeriesUnchanged() {
+        double[] x = {0, 1, 2, 3};
+        double[] y = {5, 7, 6, 9};
+
+        assertArrayEquals(new int[] {0, 1, 2, 3}, TitleHistoryService.largestTriangleThreeBuckets(x, y, 4));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, TitleHistoryService.largestTriangleThreeBuckets(x, y, 10));
+    }
+
+    @Test
+    void keepsEndpointsAndReturnsThresholdPointsInOrder() {
+        double[] x = new double[500];
+        double[] y = new double[500];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 20.0) * 1000;
+        }
+
+        int[] selected = TitleHistoryService.largestTriangleThreeBuckets(x, y, 50);
+
+        assertEquals(50, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(499, selected[49]);
+        int[] sorted = selected.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, selected);
+        assertEquals(50, Arrays.stream(selected).distinct().count());
+    }
+
+    @Test
+    void keepsASpike() {
+        double[] x = new double[100];
+        double[] y = new double[100];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i;
+            y[i] = i == 42 ? 10_000 : 100;
+        }
+
+        int[] selected = TitleHistoryService.largestTriangleThreeBuckets(x, y, 10);
+
+        assertTrue(Arrays.stream(selected).anyMatch(i -> i == 42));
+    }
+
+    @Test
+    void fillsMissingVoteCountsFromTheirNeighbours() {
+        double[] x = {0, 1, 2, 3, 5, 6, 7};
+        int[] votes = {-1, 100, -1, 120, -1, 150, -1};
+
+        assertArrayEquals(new double[] {100, 100, 110, 120, 140, 150, 150}, TitleHistoryService.voteSeries(x, votes));
+        assertArrayEquals(new double[] {0, 0}, TitleHistoryService.voteSeries(new double[] {0, 1}, new int[] {-1, -1}));
+    }
+
+    @Test
+    void snapshotsWithoutVotesDoNotTakeThePlaceOfRealChanges() {
+        // Steadily rising votes with one real jump; some snapshots only have a rating
+        Set<Integer> ratingOnly = Set.of(5, 12, 23, 38, 44, 59, 71, 90);
+        List<String> snapshots = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int s = 0; s < 100; s++) {
+            String snapshot = LocalDate.of(2020, 1, 1).plusWeeks(s).format(SnapshotCatalog.SNAPSHOT_FORMAT);
+            snapshots.add(snapshot);
+            Integer votes = ratingOnly.contains(s) ? null : 1000 + 10 * s + (s == 50 ? 4000 : 0);
+            rows.add(new Object[] {1, TITLE, snapshot, votes, 7.0});
+        }
+        TitleHistoryService service = service(snapshots, rows);
+
+        Map<String, Object> full = service.history(TITLE, TitleHistoryService.MAX_POINTS);
+        List<Map<String, Object>> all = points(full);
+        assertEquals(100, all.size());
+        assertNull(all.get(5).get("numVotes"));
+        assertEquals(7.0, all.get(5).get("imdbRating"));
+
+        List<Map<String, Object>> downsampled = points(service.history(TITLE, 8));
+        assertEquals(8, downsampled.size());
+        assertTrue(downsampled.stream().allMatch(point -> point.get("numVotes") != null), downsampled::toString);
+        assertTrue(downsampled.stream().anyMatch(point -> point.get("date").equals(snapshots.get(50))));
+    }
+
+    private TitleHistoryService service(List<String> snapshots, List<Object[]> rows) {
+        ImdbRatingRepository ratingRepository = mock(ImdbRatingRepository.class);
+        SnapshotCatalog snapshotCatalog = mock(SnapshotCatalog.class);
+        when(snapshotCatalog.snapshots()).thenReturn(snapshots);
+        when(ratingRepository.findVoteHistoryRows()).thenReturn(rows);
+        List<Object[]> metadata = new ArrayList<>();
+        metadata.add(new Object[] {1, "Original", 2000, "https://www.imdb.com/title/" + TITLE, "2024-01-01",
+            "Title", TITLE, "Movie", "Director", "Drama"});
+        when(ratingRepository.findTitleMetadata()).thenReturn(metadata);
+
+        VoteHistoryImage image = new VoteHistoryImage(ratingRepository, snapshotCatalog,
+            tempDir.resolve("vote-history.bin").toString());
+        image.rebuild();
+        return new TitleHistoryService(image);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> points(Map<String, Object> history) {
+        return (List<Map<String, Object>>) history.get("points");
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.imdb_backend.repository.ImdbRatingRepository;
+
+class VoteHistoryImageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ImdbRatingRepository ratingRepository = mock(ImdbRatingRepository.class);
+    private final SnapshotCatalog snapshotCatalog = mock(SnapshotCatalog.class);
+
+    @BeforeEach
+    void setUp() {
+        when(snapshotCatalog.snapshots()).thenReturn(List.of("01.01.2025", "01.02.2025"));
+        when(ratingRepository.findVoteHistoryRows()).thenReturn(List.of(
+            new Object[] {1, "tt0000001", "01.01.2025", 100, 7.1},
+            new Object[] {1, "tt0000001", "01.02.2025", 150, 7.2},
+            new Object[] {2, "tt0000002", "01.02.2025", 30, 6.0}));
+        when(ratingRepository.countVoteHistoryTitles()).thenReturn(2);
+    }
+
+    @Test
+    void writesEachImageUnderANewGenerationAndRemovesTheOldOne() {
+        VoteHistoryImage image = new VoteHistoryImage(ratingRepository, snapshotCatalog,
+            tempDir.resolve("vote-history.bin").toString());
+
+        image.rebuild();
+        assertTrue(Files.exists(tempDir.resolve("vote-history.bin.1")));
+
+        image.rebuild();
+        assertTrue(Files.exists(tempDir.resolve("vote-history.bin.2")));
+        assertFalse(Files.exists(tempDir.resolve("vote-history.bin.1")));
+
+        VoteHistory history = image.get();
+        assertEquals(150, history.votes(1, history.titleIndex("tt0000001")));
+        assertEquals(VoteHistory.MISSING, history.votes(0, history.titleIndex("tt0000002")));
+    }
+
+    @Test
+    void rebuildsATruncatedImage() throws Exception {
+        new VoteHistoryImage(ratingRepository, snapshotCatalog, tempDir.resolve("vote-history.bin").toString())
+            .rebuild();
+        Path written = tempDir.resolve("vote-history.bin.1");
+        try (FileChannel channel = FileChannel.open(written, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        VoteHistoryImage reloaded = new VoteHistoryImage(ratingRepository, snapshotCatalog,
+            tempDir.resolve("vote-history.bin").toString());
+        reloaded.load();
+
+        assertTrue(Files.exists(tempDir.resolve("vote-history.bin.2")));
+        VoteHistory history = reloaded.get();
+        assertEquals(30, history.votes(1, history.titleIndex("tt0000002")));
+    }
+
+    @Test
+    void rejectsABufferShorterOrLongerThanItsHeader() throws Exception {
+        VoteHistoryImage image = new VoteHistoryImage(ratingRepository, snapshotCatalog,
+            tempDir.resolve("vote-history.bin").toString());
+        image.rebuild();
+        byte[] bytes = Files.readAllBytes(tempDir.resolve("vote-history.bin.1"));
+
+        assertThrows(IllegalStateException.class,
+            () -> new VoteHistory(ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice()));
+        assertThrows(IllegalStateException.class,
+            () -> new VoteHistory(ByteBuffer.wrap(bytes, 0, 20).slice()));
+
+        byte[] longer = new byte[bytes.length + 4];
+        System.arraycopy(bytes, 0, longer, 0, bytes.length);
+        assertThrows(IllegalStateException.class, () -> new VoteHistory(ByteBuffer.wrap(longer)));
+    }
+
+    @Test
+    void mapsAMatchingImageAndRebuildsOneWithADifferentTitleCount() {
+        new VoteHistoryImage(ratingRepository, snapshotCatalog, tempDir.resolve("vote-history.bin").toString())
+            .rebuild();
+
+        new VoteHistoryImage(ratingRepository, snapshotCatalog, tempDir.resolve("vote-history.bin").toString())
+            .load();
+        assertTrue(Files.exists(tempDir.resolve("vote-history.bin.1")));
+        assertFalse(Files.exists(tempDir.resolve("vote-history.bin.2")));
+
+        // Same snapshot names, but a snapshot was re-imported with another title
+        when(ratingRepository.countVoteHistoryTitles()).thenReturn(3);
+        new VoteHistoryImage(ratingRepository, snapshotCatalog, tempDir.resolve("vote-history.bin").toString())
+            .load();
+        assertTrue(Files.exists(tempDir.resolve("vote-history.bin.2")));
+    }
+
+    @Test
+    void keepsThePreviousHistoryWhenARebuildFails() {
+        VoteHistoryImage image = new VoteHistoryImage(ratingRepository, snapshotCatalog,
+            tempDir.resolve("vote-history.bin").toString());
+        image.rebuild();
+
+        when(ratingRepository.findVoteHistoryRows()).thenThrow(new IllegalStateException("database is gone"));
+        image.rebuild();
+
+        VoteHistory history = image.get();
+        assertEquals(150, history.votes(1, history.titleIndex("tt0000001")));
+        assertTrue(Files.exists(tempDir.resolve("vote-history.bin.1")));
+        assertFalse(Files.exists(tempDir.resolve("vote-history.bin.2")));
+    }
+}
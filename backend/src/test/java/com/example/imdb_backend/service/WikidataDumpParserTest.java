@@ -0,0 +1,116 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WikidataDumpParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<WikidataDumpParser.FilmEntry> films = new ArrayList<>();
+    private final List<WikidataDumpParser.CountryEntry> countries = new ArrayList<>();
+
+    private final WikidataDumpParser.Listener listener = new WikidataDumpParser.Listener() {
+        @Override
+        public void film(WikidataDumpParser.FilmEntry film) {
+            films.add(film);
+        }
+
+        @Override
+        public void country(WikidataDumpParser.CountryEntry country) {
+            countries.add(country);
+        }
+    };
+
+    @Test
+    void keepsOnlyFilmsWithReleaseDateAndCountry() throws IOException {
+        long read;
+        try (InputStream in = fixture()) {
+            read = new WikidataDumpParser().parse(in, 0, listener);
+        }
+
+        assertEquals(6, read);
+        assertEquals(List.of(
+            new WikidataDumpParser.FilmEntry("Q83495", "The Matrix", 1999, "Q30"),
+            new WikidataDumpParser.FilmEntry("Q1000002", "Amélie", 2001, "Q142")), films);
+        assertEquals(List.of(
+            new WikidataDumpParser.CountryEntry("Q30", "United States"),
+            new WikidataDumpParser.CountryEntry("Q142", "France")), countries);
+    }
+
+    @Test
+    void resumesAfterSkippedEntities() throws IOException {
+        try (InputStream in = fixture()) {
+            new WikidataDumpParser().parse(in, 2, listener);
+        }
+
+        assertEquals(List.of("Q1000002"), films.stream().map(WikidataDumpParser.FilmEntry::qid).toList());
+        assertEquals(List.of("Q142"), countries.stream().map(WikidataDumpParser.CountryEntry::qid).toList());
+    }
+
+    @Test
+    void readsOneEntityPerLineWithoutArray() throws IOException {
+        String lines = new String(readFixture(), StandardCharsets.UTF_8).lines()
+            .filter(line -> line.startsWith("{"))
+            .map(line -> line.endsWith(",") ? line.substring(0, line.length() - 1) : line)
+            .reduce("", (a, b) -> a + b + "\n");
+
+        try (InputStream in = new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8))) {
+            assertEquals(6, new WikidataDumpParser().parse(in, 0, listener));
+        }
+        assertEquals(2, films.size());
+    }
+
+    @Test
+    void opensCompressedDumpsByExtension() throws IOException {
+        Path gz = tempDir.resolve("dump.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            out.write(readFixture());
+        }
+        Path bz2 = tempDir.resolve("dump.json.bz2");
+        try (OutputStream out = new BZip2CompressorOutputStream(Files.newOutputStream(bz2))) {
+            out.write(readFixture());
+        }
+
+        for (Path path : List.of(gz, bz2)) {
+            films.clear();
+            try (InputStream in = WikidataDumpParser.open(path)) {
+                new WikidataDumpParser().parse(in, 0, listener);
+            }
+            assertEquals(2, films.size(), path.toString());
+        }
+    }
+
+    @Test
+    void normalizesTitleKeys() {
+        assertEquals("the matrix", WikidataDumpService.normalize("  The   Matrix "));
+    }
+
+    private InputStream fixture() {
+        return getClass().getResourceAsStream("/wikidata/sample-dump.json");
+    }
+
+    private byte[] readFixture() throws IOException {
+        try (InputStream in = fixture()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toByteArray();
+        }
+    }
+}
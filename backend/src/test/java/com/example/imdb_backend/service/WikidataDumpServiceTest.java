@@ -0,0 +1,107 @@
+package com.example.imdb_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.imdb_backend.model.BackgroundJob;
+import com.example.imdb_backend.model.JobStatus;
+import com.example.imdb_backend.repository.BackgroundJobRepository;
+import com.example.imdb_backend.repository.WikidataTitleRepository;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imdb_wikidata;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+    "imdb.vote-image.path=target/wikidata/vote-history.bin",
+    "imdb.wikidata.dump-dir=src/test/resources/wikidata"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+class WikidataDumpServiceTest {
+
+    private static final String DUMP = "sample-dump.json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WikidataDumpService wikidataDumpService;
+
+    @Autowired
+    private WikidataTitleRepository titleRepository;
+
+    @Autowired
+    private BackgroundJobRepository jobRepository;
+
+    @BeforeEach
+    void setUp() {
+        titleRepository.deleteAllTitles();
+    }
+
+    @Test
+    void resolvesOnlyFilesInsideTheDumpDirectory() {
+        Path dumpDir = Path.of("src/test/resources/wikidata").toAbsolutePath().normalize();
+        assertEquals(dumpDir.resolve(DUMP), wikidataDumpService.resolveDump(DUMP));
+
+        for (String name : new String[] {"../application-perf.properties", "/etc/passwd", "sub/dump.json",
+                "..\\dump.json", "..", ".", "", " ", null}) {
+            assertThrows(IllegalArgumentException.class, () -> wikidataDumpService.resolveDump(name), name);
+        }
+    }
+
+    @Test
+    void rejectsPathsAtTheEndpoint() throws Exception {
+        mockMvc.perform(post("/api/imdb-ratings/import-wikidata-dump").param("file", "../../pom.xml"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(WikidataDumpService.INVALID_DUMP_NAME));
+    }
+
+    @Test
+    void importsTheDumpWithItsCheckpoint() throws Exception {
+        BackgroundJob job = job();
+        wikidataDumpService.run(new JobContext(job, jobRepository));
+
+        assertEquals(2, titleRepository.count());
+        assertEquals(6, jobRepository.findById(job.getId()).orElseThrow().getCheckpoint());
+        assertEquals(Optional.of("France"), wikidataDumpService.findCountry("Amélie", 2001));
+    }
+
+    @Test
+    void aBatchIsNotKeptWithoutItsCheckpoint() {
+        BackgroundJobRepository failingJobRepository = mock(BackgroundJobRepository.class);
+        when(failingJobRepository.save(any())).thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+            () -> wikidataDumpService.run(new JobContext(job(), failingJobRepository)));
+
+        // The job resumes from its last stored checkpoint, so the batch must not have been saved either
+        assertEquals(0, titleRepository.count());
+        assertTrue(wikidataDumpService.findCountry("The Matrix", 1999).isEmpty());
+    }
+
+    private BackgroundJob job() {
+        BackgroundJob job = new BackgroundJob();
+        job.setType(WikidataDumpService.JOB_TYPE);
+        job.setParameter(DUMP);
+        job.setStatus(JobStatus.RUNNING);
+        job.setCheckpoint(0);
+        return jobRepository.save(job);
+    }
+}
@@ -0,0 +1,2 @@
+CREATE ALIAS IF NOT EXISTS STR_TO_DATE FOR "com.example.imdb_backend.H2Functions.strToDate";
+CREATE ALIAS IF NOT EXISTS SUBSTRING_INDEX FOR "com.example.imdb_backend.H2Functions.substringIndex";